@@ -0,0 +1,8 @@
+-- The audit user is now set per transaction (set_config(..., true)) right before the first write.
+-- Make the helper transaction-local too so it can no longer leave a user id on a pooled connection.
+CREATE OR REPLACE FUNCTION set_current_user_id(user_id BIGINT)
+RETURNS VOID AS $$
+BEGIN
+    PERFORM set_config('app.current_user_id', user_id::TEXT, true);
+END;
+$$ LANGUAGE plpgsql;
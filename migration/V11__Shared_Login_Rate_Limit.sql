@@ -0,0 +1,13 @@
+-- Login throttling counters shared by all app instances (security.login-limit.shared-store.enabled).
+-- UNLOGGED: no WAL, so upserts are cheap; the rows are disposable and are lost on a crash, which only resets
+-- throttling. One row per limiter, key and time bucket; instances add their batched counts atomically.
+CREATE UNLOGGED TABLE IF NOT EXISTS login_rate_limit (
+    limiter  VARCHAR(32)  NOT NULL,
+    key      VARCHAR(255) NOT NULL,
+    bucket   BIGINT       NOT NULL,
+    attempts INT          NOT NULL,
+    PRIMARY KEY (limiter, key, bucket)
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_rate_limit_bucket
+    ON login_rate_limit (bucket);
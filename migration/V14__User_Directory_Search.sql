@@ -0,0 +1,10 @@
+-- User directory (/api/full-users/directory): keyset pages in byte order and username search.
+-- The C-collated btree serves ORDER BY / keyset comparisons and prefix LIKE on username COLLATE "C";
+-- the trigram index serves substring LIKE '%term%'.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_c
+    ON users (username COLLATE "C");
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm
+    ON users USING GIN (username gin_trgm_ops);
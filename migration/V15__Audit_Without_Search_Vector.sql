@@ -0,0 +1,75 @@
+-- todos.search_vector (V7) is derived from title and description, which are audited anyway.
+-- Leave it out of the audited rows so every todo write does not copy the tsvector into audit_log twice.
+CREATE OR REPLACE FUNCTION audit_trigger_function()
+RETURNS TRIGGER AS $$
+DECLARE
+    action_type_id INT;
+    current_user_id BIGINT;
+BEGIN
+    -- Get the action type ID based on the trigger operation
+    SELECT id INTO action_type_id
+    FROM audit_log_action_types
+    WHERE name = TG_OP;
+
+    BEGIN
+        current_user_id := COALESCE(
+            NULLIF(current_setting('app.current_user_id', true), '')::BIGINT,
+            NULL
+        );
+    EXCEPTION WHEN OTHERS THEN
+        current_user_id := NULL;
+    END;
+
+    -- Removing a key the row does not have is a no-op, so this is safe for every audited table
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO audit_log (
+            user_id,
+            action_type,
+            table_name,
+            old_data,
+            new_data
+        ) VALUES (
+            current_user_id,
+            action_type_id,
+            TG_TABLE_NAME,
+            to_jsonb(OLD) - 'search_vector',
+            '{}'::jsonb
+        );
+        RETURN OLD;
+
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO audit_log (
+            user_id,
+            action_type,
+            table_name,
+            old_data,
+            new_data
+        ) VALUES (
+            current_user_id,
+            action_type_id,
+            TG_TABLE_NAME,
+            to_jsonb(OLD) - 'search_vector',
+            to_jsonb(NEW) - 'search_vector'
+        );
+        RETURN NEW;
+
+    ELSIF TG_OP = 'INSERT' THEN
+        INSERT INTO audit_log (
+            user_id,
+            action_type,
+            table_name,
+            old_data,
+            new_data
+        ) VALUES (
+            current_user_id,
+            action_type_id,
+            TG_TABLE_NAME,
+            '{}'::jsonb,
+            to_jsonb(NEW) - 'search_vector'
+        );
+        RETURN NEW;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
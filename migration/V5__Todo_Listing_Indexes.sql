@@ -0,0 +1,19 @@
+-- Keyset pagination for /api/full-todos orders by (updated_at, id) descending.
+-- Each filter column gets a composite index so a filtered page is a single index range scan.
+CREATE INDEX IF NOT EXISTS idx_todos_updated_at_id
+    ON todos (updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_team_updated_at_id
+    ON todos (team_id, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_status_updated_at_id
+    ON todos (status_id, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_assigned_to_updated_at_id
+    ON todos (assigned_to_id, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_created_by_updated_at_id
+    ON todos (created_by, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_due_date
+    ON todos (due_date);
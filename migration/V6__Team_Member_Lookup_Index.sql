@@ -0,0 +1,6 @@
+-- Todo visibility checks probe team_members by (team_id, user_id); the reverse order serves "my teams" lookups.
+CREATE INDEX IF NOT EXISTS idx_team_members_team_user
+    ON team_members (team_id, user_id);
+
+CREATE INDEX IF NOT EXISTS idx_team_members_user_team
+    ON team_members (user_id, team_id);
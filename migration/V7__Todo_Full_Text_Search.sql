@@ -0,0 +1,11 @@
+-- Full-text search over todo titles (weight A) and descriptions (weight B).
+-- The column is generated, so every write path keeps it current without application changes.
+ALTER TABLE todos
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_todos_search_vector
+    ON todos USING GIN (search_vector);
@@ -0,0 +1,4 @@
+-- Todo ids are now allocated by Hibernate's pooled optimizer in blocks of 50 (allocationSize on Todo.id),
+-- which lets inserts be sent as JDBC batches. Plain SQL inserts using the column default remain safe:
+-- each nextval value owns the block (value - 49 .. value) and is never handed out twice.
+ALTER SEQUENCE todos_id_seq INCREMENT BY 50;
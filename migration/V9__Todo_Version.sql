@@ -0,0 +1,2 @@
+-- Optimistic locking counter for todos (JPA @Version); each update increments it
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,25 @@
+package com.team1.todo.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuditDataSourceConfig {
+
+    // Static so the post processor is registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor auditingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AuditingDataSource)) {
+                    return new AuditingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.team1.todo.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.team1.todo.security.AuthenticatedUser;
+
+/**
+ * Attaches the authenticated user to the transaction for the audit triggers (app.current_user_id, see V3).
+ * The setting is issued right before the first writing statement of a transaction and is transaction-local,
+ * so read-only work costs no extra round trip and a pooled connection never keeps another user's id.
+ */
+public class AuditingDataSource extends DelegatingDataSource {
+
+    private static final String SET_AUDIT_USER_SQL = "SELECT set_config('app.current_user_id', ?, true)";
+
+    // Leading comments are skipped; WITH is included because a CTE may wrap a write
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)*(?:insert|update|delete|merge|with)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    public AuditingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new AuditConnectionHandler(connection));
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class AuditConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        // Whether the running transaction already carries the audit user
+        private boolean auditUserSet;
+
+        private AuditConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement", "prepareCall" -> beforeStatement((String) args[0]);
+                case "commit", "rollback", "close" -> {
+                    if (args == null || args.length == 0) {
+                        auditUserSet = false;
+                    }
+                }
+                case "setAutoCommit" -> auditUserSet = false;
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> { }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void beforeStatement(String sql) throws SQLException {
+            // In autocommit mode a separate statement would be its own transaction, so there is nothing to attach to
+            if (auditUserSet || sql == null || target.getAutoCommit() || target.isReadOnly()
+                    || !WRITE_STATEMENT.matcher(sql).find()) {
+                return;
+            }
+            Long userId = currentUserId();
+            if (userId == null) {
+                return;
+            }
+            try (PreparedStatement statement = target.prepareStatement(SET_AUDIT_USER_SQL)) {
+                statement.setString(1, userId.toString());
+                statement.execute();
+            }
+            auditUserSet = true;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.team1.todo.config;
+
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.team1.todo.entity.User;
+import com.team1.todo.entity.UserSystemRole;
+import com.team1.todo.security.PrincipalCache;
+
+// Role and account changes made through the Spring Data REST endpoints (/api/userSystemRoles, /api/users) must
+// invalidate cached principals and stop older tokens' role claims from being trusted, like UserRoleController does.
+// Invalidation runs after the write so a concurrent request cannot re-cache the old roles in between.
+@Component
+@RepositoryEventHandler
+public class PrincipalCacheEventHandler {
+
+    // The committed owner of the row; a PATCH may re-point a role to another user or rename a user
+    private static final String ROLE_OWNER_SQL = """
+        SELECT u.username FROM user_system_roles usr
+        JOIN users u ON u.id = usr.user_id
+        WHERE usr.id = ?
+        """;
+
+    private static final String USERNAME_SQL = "SELECT username FROM users WHERE id = ?";
+
+    private static final String PREVIOUS_USERNAME_ATTRIBUTE = PrincipalCacheEventHandler.class.getName() + ".previous.";
+
+    private final PrincipalCache principalCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PrincipalCacheEventHandler(PrincipalCache principalCache, JdbcTemplate jdbcTemplate) {
+        this.principalCache = principalCache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @HandleBeforeSave
+    public void handleRoleSaving(UserSystemRole role) {
+        rememberPreviousUsername("role." + role.getId(), ROLE_OWNER_SQL, role.getId());
+    }
+
+    @HandleAfterSave
+    public void handleRoleSaved(UserSystemRole role) {
+        invalidatePreviousUsername("role." + role.getId());
+        invalidate(role.getUser());
+    }
+
+    @HandleAfterCreate
+    @HandleAfterDelete
+    public void handleRoleChanged(UserSystemRole role) {
+        invalidate(role.getUser());
+    }
+
+    @HandleBeforeSave
+    public void handleUserSaving(User user) {
+        rememberPreviousUsername("user." + user.getId(), USERNAME_SQL, user.getId());
+    }
+
+    @HandleAfterSave
+    public void handleUserSaved(User user) {
+        invalidatePreviousUsername("user." + user.getId());
+        invalidate(user);
+    }
+
+    @HandleAfterDelete
+    public void handleUserDeleted(User user) {
+        invalidate(user);
+    }
+
+    private void rememberPreviousUsername(String key, String sql, Long id) {
+        if (id == null) {
+            return;
+        }
+        jdbcTemplate.queryForList(sql, String.class, id).stream().findFirst().ifPresent(username ->
+                RequestContextHolder.currentRequestAttributes().setAttribute(
+                        PREVIOUS_USERNAME_ATTRIBUTE + key, username, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    private void invalidatePreviousUsername(String key) {
+        Object username = RequestContextHolder.currentRequestAttributes().getAttribute(
+                PREVIOUS_USERNAME_ATTRIBUTE + key, RequestAttributes.SCOPE_REQUEST);
+        if (username != null) {
+            principalCache.invalidate((String) username);
+        }
+    }
+
+    private void invalidate(User user) {
+        if (user != null && user.getUsername() != null) {
+            principalCache.invalidate(user.getUsername());
+        }
+    }
+}
@@ -64,8 +64,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/register",
                                 "/api/auth/login",
+                                "/api/auth/refresh",
+                                "/api/auth/logout",
                                 "/api/auth/setup-2fa",
-                                "/api/auth/verify-2fa").permitAll()
+                                "/api/auth/verify-2fa",
+                                "/api/auth/2fa-qr/**").permitAll()
                         .requestMatchers("/api/auth/reset-2fa").authenticated()
                         .requestMatchers(
                                 "/",
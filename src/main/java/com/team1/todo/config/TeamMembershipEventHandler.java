@@ -0,0 +1,85 @@
+package com.team1.todo.config;
+
+import java.util.List;
+
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.TeamMember;
+import com.team1.todo.entity.User;
+import com.team1.todo.service.TeamMembershipIndex;
+import com.team1.todo.service.TeamRosterCache;
+import com.team1.todo.service.TeamVersionService;
+
+// Keeps TeamMembershipIndex, the roster cache and the team version stamps current for changes made through the Spring Data REST endpoints
+@Component
+@RepositoryEventHandler
+public class TeamMembershipEventHandler {
+
+    private final TeamMembershipIndex teamMembershipIndex;
+    private final TeamVersionService teamVersionService;
+    private final TeamRosterCache teamRosterCache;
+
+    public TeamMembershipEventHandler(TeamMembershipIndex teamMembershipIndex, TeamVersionService teamVersionService,
+                                      TeamRosterCache teamRosterCache) {
+        this.teamMembershipIndex = teamMembershipIndex;
+        this.teamVersionService = teamVersionService;
+        this.teamRosterCache = teamRosterCache;
+    }
+
+    @HandleAfterCreate
+    public void handleMemberCreated(TeamMember member) {
+        teamMembershipIndex.add(member.getUser().getId(), member.getTeam().getId(), member.getTeamRole().getId());
+        teamVersionService.bumpTeam(member.getTeam().getId());
+        teamRosterCache.evict();
+    }
+
+    // The previous user and team of an edited row are no longer known here, so rebuild from the table
+    @HandleAfterSave
+    public void handleMemberSaved(TeamMember member) {
+        teamMembershipIndex.reload();
+        teamVersionService.bumpTeam(member.getTeam().getId());
+        teamRosterCache.evict();
+    }
+
+    @HandleAfterDelete
+    public void handleMemberDeleted(TeamMember member) {
+        teamMembershipIndex.remove(member.getUser().getId(), member.getTeam().getId());
+        teamVersionService.bumpTeam(member.getTeam().getId());
+        teamRosterCache.evict();
+    }
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void handleTeamSaved(Team team) {
+        teamVersionService.bumpTeam(team.getId());
+        teamRosterCache.evict();
+    }
+
+    // Memberships go with the team or user through ON DELETE CASCADE
+    @HandleAfterDelete
+    public void handleTeamDeleted(Team team) {
+        teamMembershipIndex.removeTeam(team.getId());
+        teamVersionService.bumpTeam(team.getId());
+        teamRosterCache.evict();
+    }
+
+    // Rosters show usernames, so a rename must also change the ETag of /api/teaminfo/all
+    @HandleAfterSave
+    public void handleUserSaved(User user) {
+        teamMembershipIndex.teamIdsOf(user.getId()).forEach(teamVersionService::bumpTeam);
+        teamRosterCache.evict();
+    }
+
+    @HandleAfterDelete
+    public void handleUserDeleted(User user) {
+        List<Long> teamIds = teamMembershipIndex.teamIdsOf(user.getId());
+        teamMembershipIndex.removeUser(user.getId());
+        teamIds.forEach(teamVersionService::bumpTeam);
+        teamRosterCache.evict();
+    }
+}
@@ -1,41 +1,59 @@
 package com.team1.todo.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
 import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
 import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
 import org.springframework.data.rest.core.annotation.HandleBeforeSave;
 import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.team1.todo.entity.Todo;
-import com.team1.todo.entity.User;
+import com.team1.todo.repository.UserRepository;
+import com.team1.todo.security.AuthenticatedUser;
 import com.team1.todo.service.TodoService;
 
 @Component
 @RepositoryEventHandler
 public class TodoRepositoryEventHandler {
 
+    // The row as committed; the entity passed to the save handlers already carries the patched team
+    private static final String COMMITTED_TEAM_SQL = "SELECT team_id FROM todos WHERE id = ?";
+
+    private static final String PREVIOUS_TEAM_ATTRIBUTE = TodoRepositoryEventHandler.class.getName() + ".previousTeam.";
+
     private final TodoService todoService;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public TodoRepositoryEventHandler(TodoService todoService) {
+    public TodoRepositoryEventHandler(TodoService todoService, UserRepository userRepository,
+                                      JdbcTemplate jdbcTemplate) {
         this.todoService = todoService;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @HandleBeforeCreate
     public void handleTodoCreate(Todo todo) {
         // For creation, we set the current user as the creator if not already set
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = currentUser();
         if (currentUser == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
         }
         
         // If creator is null, set it to the current user
         if (todo.getCreatedBy() == null) {
-            todo.setCreatedBy(currentUser);
+            todo.setCreatedBy(userRepository.getReferenceById(currentUser.getId()));
         }
         
         // The rest of the validation (like team membership for assigned users) is handled by TodoService
@@ -44,7 +62,7 @@ public class TodoRepositoryEventHandler {
     @HandleBeforeSave
     public void handleTodoSave(Todo todo) {
         // Get the current authenticated user
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = currentUser();
         if (currentUser == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
         }
@@ -56,12 +74,20 @@ public class TodoRepositoryEventHandler {
                 "You are not authorized to update this todo. Only the creator or team members can update it."
             );
         }
+
+        // Remembered for handleTodoSaved, so a todo moved to another team also invalidates the old team's listings
+        if (todo.getId() != null) {
+            Long previousTeamId = jdbcTemplate.queryForList(COMMITTED_TEAM_SQL, Long.class, todo.getId()).stream()
+                    .findFirst().orElse(null);
+            RequestContextHolder.currentRequestAttributes().setAttribute(
+                    PREVIOUS_TEAM_ATTRIBUTE + todo.getId(), previousTeamId, RequestAttributes.SCOPE_REQUEST);
+        }
     }
     
     @HandleBeforeDelete
     public void handleTodoDelete(Todo todo) {
         // Get the current authenticated user
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser currentUser = currentUser();
         if (currentUser == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
         }
@@ -75,4 +101,25 @@ public class TodoRepositoryEventHandler {
             );
         }
     }
-} 
\ No newline at end of file
+
+    @HandleAfterCreate
+    @HandleAfterDelete
+    public void handleTodoChanged(Todo todo) {
+        todoService.bumpVersions(todo, null);
+    }
+
+    @HandleAfterSave
+    public void handleTodoSaved(Todo todo) {
+        Object previousTeamId = RequestContextHolder.currentRequestAttributes().getAttribute(
+                PREVIOUS_TEAM_ATTRIBUTE + todo.getId(), RequestAttributes.SCOPE_REQUEST);
+        todoService.bumpVersions(todo, (Long) previousTeamId);
+    }
+
+    private AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return null;
+        }
+        return user;
+    }
+}
@@ -1,18 +1,24 @@
 package com.team1.todo.controller;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageConfig;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.team1.todo.entity.User;
+import com.team1.todo.security.TokenRevocationStore;
+import com.team1.todo.security.VerifiedToken;
 import com.team1.todo.service.AuthService;
+import com.team1.todo.service.PasswordHashingService;
+import com.team1.todo.service.QrCodeService;
+import com.team1.todo.service.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,9 +27,12 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -32,37 +41,80 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private QrCodeService qrCodeService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            User registeredUser = authService.registerUser(
-                    request.getUsername(),
-                    request.getPassword()
-            );
-            if (registeredUser != null) {
-                String username = request.getUsername();
-                String qrCodeUrl = authService.setup2FA(username);
-                return ResponseEntity.ok(new Setup2FAResponse(qrCodeUrl));
-            } else {
-                return ResponseEntity.badRequest().body(new ApiResponse("User registration failed"));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        // Async so the request thread is released while the password is hashed
+        return authService.registerUser(
+                        request.getUsername(),
+                        request.getPassword()
+                )
+                .thenApply(registeredUser -> {
+                    String qrCodeUrl = authService.setup2FA(registeredUser.getUsername());
+                    return ResponseEntity.ok(setup2FAResponse(registeredUser.getUsername(), qrCodeUrl));
+                })
+                .handle((response, error) -> error == null
+                        ? response
+                        : errorResponse(error));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            AuthService.AuthenticationResponse response = authService.authenticate(
-                    request.getUsername(),
-                    request.getPassword(),
-                    request.getTotpCode()
-            );
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request,
+                                                      HttpServletRequest httpRequest) {
+        // Async so the request thread is released while the constant-time padding runs out
+        return authService.authenticate(
+                        request.getUsername(),
+                        request.getPassword(),
+                        request.getTotpCode(),
+                        httpRequest.getRemoteAddr()
+                )
+                .handle((response, error) -> error == null
+                        ? ResponseEntity.ok(response)
+                        : errorResponse(error));
+    }
+
+    // Renews the access token without password, 2FA or login padding; the refresh token is rotated on every call
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        return refreshTokenService.rotate(request.getRefreshToken())
+                .<ResponseEntity<?>>map(pair -> ResponseEntity.ok(new RefreshResponse(pair)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse("Invalid refresh token")));
+    }
+
+    // Open to unauthenticated callers so an already expired access token does not stop the refresh token
+    // from being revoked; the access token, when still valid, is revoked until it would have expired
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) LogoutRequest request,
+                                    HttpServletRequest httpRequest) {
+        if (httpRequest.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken token) {
+            tokenRevocationStore.revoke(token.jti(), token.expiresAtMillis());
+        }
+        if (request != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return ResponseEntity.ok(new ApiResponse("Logged out"));
+    }
+
+    // A full password-hashing queue is reported as 503 so clients back off; everything else stays a 400
+    private ResponseEntity<?> errorResponse(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof PasswordHashingService.HashingCapacityExceededException busy) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()))
+                    .body(new ApiResponse(busy.getMessage()));
         }
+        return ResponseEntity.badRequest().body(new ApiResponse(error.getMessage()));
     }
 
     @PostMapping("/setup-2fa")
@@ -70,12 +122,37 @@ public class AuthController {
         try {
             String username = request.get("username");
             String qrCodeUrl = authService.setup2FA(username);
-            return ResponseEntity.ok(new Setup2FAResponse(qrCodeUrl));
+            return ResponseEntity.ok(setup2FAResponse(username, qrCodeUrl));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage()));
         }
     }
 
+    // The provisioning URI is rebuilt from the user's stored secret and must hash to the key, so the URL
+    // reveals nothing, any instance can serve it and it stops resolving once the secret is reset.
+    // Private caching lets the setup page be reloaded without another render or download.
+    @GetMapping("/2fa-qr/{username}/{key}.{format}")
+    public ResponseEntity<byte[]> qrCodeImage(@PathVariable String username, @PathVariable String key,
+                                              @PathVariable String format) {
+        return authService.provisioningUri(username)
+                .filter(uri -> MessageDigest.isEqual(qrCodeService.keyOf(uri).getBytes(StandardCharsets.UTF_8),
+                        key.getBytes(StandardCharsets.UTF_8)))
+                .flatMap(uri -> qrCodeService.render(uri, format))
+                .map(image -> ResponseEntity.ok()
+                        .contentType(QrCodeService.SVG.equals(format)
+                                ? MediaType.valueOf("image/svg+xml") : MediaType.IMAGE_PNG)
+                        .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePrivate())
+                        .eTag(key + "." + format)
+                        .body(image))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private Setup2FAResponse setup2FAResponse(String username, String qrCodeUrl) {
+        String imagePath = "/api/auth/2fa-qr/" + username.toLowerCase().trim() + "/"
+                + qrCodeService.keyOf(qrCodeUrl) + "." + QrCodeService.SVG;
+        return new Setup2FAResponse(qrCodeUrl, imagePath);
+    }
+
     @PostMapping("/verify-2fa")
     public ResponseEntity<?> verify2FA(@Valid @RequestBody Verify2FARequest request) {
         try {
@@ -165,6 +242,33 @@ public class AuthController {
         }
     }
 
+    public static class RefreshRequest {
+        @NotBlank
+        @Size(max = 256)
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    public static class LogoutRequest {
+        @Size(max = 256)
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
     public static class Verify2FARequest {
         @NotBlank
         private String username;
@@ -196,32 +300,44 @@ public class AuthController {
         }
     }
 
-    public static class Setup2FAResponse extends ApiResponse {
-        private String qrCodeUrl;
-        private String totpSecret;
-        private byte[] qrCodeImage;
+    public static class RefreshResponse {
+        private final String token;
+        private final String refreshToken;
+        private final long expiresIn;
 
-        private static final int QR_CODE_WIDTH = 300;
-        private static final int QR_CODE_HEIGHT = 300;
+        public RefreshResponse(RefreshTokenService.TokenPair pair) {
+            this.token = pair.accessToken();
+            this.refreshToken = pair.refreshToken();
+            this.expiresIn = pair.expiresInSeconds();
+        }
 
+        public boolean isSuccess() {
+            return true;
+        }
 
-        public Setup2FAResponse(String qrCodeUrl) throws IOException, WriterException {
-            super("User registered successfully and 2FA setup initiated");
-            this.qrCodeUrl = qrCodeUrl;
-            this.qrCodeImage = Setup2FAResponse.getQRCodeImage(qrCodeUrl, QR_CODE_WIDTH, QR_CODE_HEIGHT);
-            this.totpSecret = qrCodeUrl.split("secret=")[1].split("&")[0];
+        public String getToken() {
+            return token;
         }
 
-        public static byte[] getQRCodeImage(String text, int width, int height) throws IOException, WriterException {
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height);
+        public String getRefreshToken() {
+            return refreshToken;
+        }
 
-            ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-            MatrixToImageConfig con = new MatrixToImageConfig( 0xFF000000 , 0xFFFFFFFF ) ;
+        public long getExpiresIn() {
+            return expiresIn;
+        }
+    }
 
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream,con);
-            byte[] pngData = pngOutputStream.toByteArray();
-            return pngData;
+    public static class Setup2FAResponse extends ApiResponse {
+        private String qrCodeUrl;
+        private String totpSecret;
+        private String qrCodeImageUrl;
+
+        public Setup2FAResponse(String qrCodeUrl, String qrCodeImageUrl) {
+            super("User registered successfully and 2FA setup initiated");
+            this.qrCodeUrl = qrCodeUrl;
+            this.qrCodeImageUrl = qrCodeImageUrl;
+            this.totpSecret = qrCodeUrl.split("secret=")[1].split("&")[0];
         }
 
         public String getQrCodeUrl() {
@@ -232,8 +348,8 @@ public class AuthController {
             return totpSecret;
         }
 
-        public byte[] getQrCodeImage() {
-            return qrCodeImage;
+        public String getQrCodeImageUrl() {
+            return qrCodeImageUrl;
         }
     }
-}
\ No newline at end of file
+}
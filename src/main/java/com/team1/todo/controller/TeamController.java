@@ -20,6 +20,9 @@ import com.team1.todo.repository.TeamMemberRepository;
 import com.team1.todo.repository.TeamRepository;
 import com.team1.todo.repository.TeamRoleRepository;
 import com.team1.todo.repository.UserRepository;
+import com.team1.todo.service.TeamMembershipIndex;
+import com.team1.todo.service.TeamRosterCache;
+import com.team1.todo.service.TeamVersionService;
 
 @RestController
 @RequestMapping("/api/teams-updates")
@@ -29,15 +32,24 @@ public class TeamController {
     private final TeamMemberRepository teamMemberRepository;
     private final UserRepository userRepository;
     private final TeamRoleRepository teamRoleRepository;
+    private final TeamVersionService teamVersionService;
+    private final TeamRosterCache teamRosterCache;
+    private final TeamMembershipIndex teamMembershipIndex;
 
     public TeamController(TeamRepository teamRepository, 
                           TeamMemberRepository teamMemberRepository,
                           UserRepository userRepository,
-                          TeamRoleRepository teamRoleRepository) {
+                          TeamRoleRepository teamRoleRepository,
+                          TeamVersionService teamVersionService,
+                          TeamRosterCache teamRosterCache,
+                          TeamMembershipIndex teamMembershipIndex) {
         this.teamRepository = teamRepository;
         this.teamMemberRepository = teamMemberRepository;
         this.userRepository = userRepository;
         this.teamRoleRepository = teamRoleRepository;
+        this.teamVersionService = teamVersionService;
+        this.teamRosterCache = teamRosterCache;
+        this.teamMembershipIndex = teamMembershipIndex;
     }
 
     @PostMapping
@@ -62,6 +74,9 @@ public class TeamController {
         teamMember.setUser(currentUser);
         teamMember.setTeamRole(teamLeadRole);
         teamMemberRepository.save(teamMember);
+        teamMembershipIndex.add(currentUser.getId(), team.getId(), teamLeadRole.getId());
+        teamVersionService.bumpTeam(team.getId());
+        teamRosterCache.evict();
         
         // Create response DTO
         TeamResponseDto responseDto = new TeamResponseDto();
@@ -1,13 +1,14 @@
 package com.team1.todo.controller;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,7 +17,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team1.todo.dto.TeamMemberImportDto;
+import com.team1.todo.dto.TeamMemberImportResultDto;
+import com.team1.todo.dto.TeamMemberView;
+import com.team1.todo.dto.TeamRosterView;
+import com.team1.todo.dto.UserTeamRoleView;
 import com.team1.todo.entity.Team;
 import com.team1.todo.entity.TeamMember;
 import com.team1.todo.entity.TeamRole;
@@ -25,6 +33,11 @@ import com.team1.todo.repository.TeamMemberRepository;
 import com.team1.todo.repository.TeamRepository;
 import com.team1.todo.repository.TeamRoleRepository;
 import com.team1.todo.repository.UserRepository;
+import com.team1.todo.security.AuthenticatedUser;
+import com.team1.todo.service.TeamMembershipImportService;
+import com.team1.todo.service.TeamMembershipIndex;
+import com.team1.todo.service.TeamRosterCache;
+import com.team1.todo.service.TeamVersionService;
 
 @RestController
 @RequestMapping("/api/teaminfo")
@@ -34,72 +47,50 @@ public class TeamInfoController {
     private final TeamRepository teamRepository;
     private final TeamRoleRepository teamRoleRepository;
     private final UserRepository userRepository;
+    private final TeamVersionService teamVersionService;
+    private final TeamRosterCache teamRosterCache;
+    private final TeamMembershipIndex teamMembershipIndex;
+    private final TeamMembershipImportService teamMembershipImportService;
 
-    public TeamInfoController(TeamMemberRepository teamMemberRepository, TeamRepository teamRepository, TeamRoleRepository teamRoleRepository, UserRepository userRepository) {
+    public TeamInfoController(TeamMemberRepository teamMemberRepository, TeamRepository teamRepository, TeamRoleRepository teamRoleRepository, UserRepository userRepository, TeamVersionService teamVersionService, TeamRosterCache teamRosterCache, TeamMembershipIndex teamMembershipIndex, TeamMembershipImportService teamMembershipImportService) {
         this.teamMemberRepository = teamMemberRepository;
         this.teamRepository = teamRepository;
         this.teamRoleRepository = teamRoleRepository;
         this.userRepository = userRepository;
+        this.teamVersionService = teamVersionService;
+        this.teamRosterCache = teamRosterCache;
+        this.teamMembershipIndex = teamMembershipIndex;
+        this.teamMembershipImportService = teamMembershipImportService;
     }
 
     // 1. Get user with their team role id and name
     @GetMapping("/user/{userId}/role")
     public ResponseEntity<?> getUserTeamRoles(@PathVariable Long userId) {
-        List<TeamMember> memberships = teamMemberRepository.findByUserId(userId);
+        List<UserTeamRoleView> memberships = teamMemberRepository.findTeamRoleViewsByUserId(userId);
 
         if (memberships.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Object> result = memberships.stream().map(tm -> {
-            return new Object() {
-                public final Long teamId = tm.getTeam().getId();
-                public final String teamName = tm.getTeam().getName();
-                public final Long roleId = tm.getTeamRole().getId();
-                public final String roleName = tm.getTeamRole().getName();
-            };
-        }).collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(memberships);
     }
 
     // 2. Get all members of a team with their info
     @GetMapping("/{teamId}/members")
-    public ResponseEntity<?> getTeamMembers(@PathVariable Long teamId) {
-        List<TeamMember> members = teamMemberRepository.findByTeamId(teamId);
-
-        List<Object> result = members.stream().map(tm -> {
-            User user = tm.getUser();
-            return new Object() {
-                public final Long userId = user.getId();
-                public final String username = user.getUsername();
-                public final Long roleId = tm.getTeamRole().getId();
-                public final String roleName = tm.getTeamRole().getName();
-            };
-        }).collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<TeamMemberView>> getTeamMembers(@PathVariable Long teamId) {
+        return ResponseEntity.ok(teamMemberRepository.findMemberViewsByTeamId(teamId));
     }
 
     @GetMapping("/all")
-    public List<Map<String, Object>> getAllTeamsWithMembers() {
-        return teamRepository.findAll().stream().map(team -> {
-            Map<String, Object> teamMap = new HashMap<>();
-            teamMap.put("teamId", team.getId());
-            teamMap.put("teamName", team.getName());
-            List<Map<String, Object>> members = team.getMembers().stream().map(member -> {
-                Map<String, Object> memberMap = new HashMap<>();
-                User user = member.getUser();
-                TeamRole role = member.getTeamRole();
-                memberMap.put("userId", user.getId());
-                memberMap.put("username", user.getUsername());
-                memberMap.put("roleId", role.getId());
-                memberMap.put("roleName", role.getName());
-                return memberMap;
-            }).collect(Collectors.toList());
-            teamMap.put("members", members);
-            return teamMap;
-        }).collect(Collectors.toList());
+    public ResponseEntity<List<TeamRosterView>> getAllTeamsWithMembers(WebRequest request) {
+        String etag = teamVersionService.allTeamsEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(teamRosterCache.getRosters(() -> TeamRosterView.group(teamRepository.findAllRosterRows())));
     }
 
     @PostMapping("/{teamId}/add-member")
@@ -134,10 +125,26 @@ public class TeamInfoController {
         newMember.setTeamRole(teamRole);
 
         teamMemberRepository.save(newMember);
+        teamMembershipIndex.add(user.getId(), teamId, teamRole.getId());
+        teamVersionService.bumpTeam(teamId);
+        teamRosterCache.evict();
 
         return ResponseEntity.ok("User added to team successfully.");
     }
 
+    // Bulk form of add-member, update-role and remove: one transaction, one result per row.
+    // Limited to system admins and leads of the team, since one call can rewrite the whole roster.
+    @PostMapping("/{teamId}/members/bulk")
+    public List<TeamMemberImportResultDto> importMembers(@PathVariable Long teamId,
+                                                         @RequestBody List<TeamMemberImportDto> members) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        if (!currentUser.getSystemRoleNames().contains("system_admin") && !isTeamLead(currentUser.getId(), teamId)) {
+            throw new ResponseStatusException(
+                HttpStatus.FORBIDDEN, "Only a system admin or a lead of this team can import members");
+        }
+        return teamMembershipImportService.apply(teamId, members);
+    }
+
     @PutMapping("/{teamId}/update-role")
     public ResponseEntity<String> updateUserRoleInTeam(
             @PathVariable Long teamId,
@@ -169,6 +176,9 @@ public class TeamInfoController {
 
         membership.setTeamRole(newRole);
         teamMemberRepository.save(membership);
+        teamMembershipIndex.add(userId, teamId, newRole.getId());
+        teamVersionService.bumpTeam(teamId);
+        teamRosterCache.evict();
 
         return ResponseEntity.ok("User's role updated successfully.");
     }
@@ -189,9 +199,27 @@ public class TeamInfoController {
 
         // Remove the user from the team
         teamMemberRepository.delete(teamMemberOptional.get());
+        teamMembershipIndex.remove(userId, teamId);
+        teamVersionService.bumpTeam(teamId);
+        teamRosterCache.evict();
 
         return ResponseEntity.ok("User removed from the team");
     }
 
+    private boolean isTeamLead(Long userId, Long teamId) {
+        Long roleId = teamMembershipIndex.roleOf(userId, teamId);
+        return roleId != null && teamRoleRepository.findByName("team_lead")
+                .map(TeamRole::getId)
+                .filter(roleId::equals)
+                .isPresent();
+    }
 
+    private AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+        return user;
+    }
 }
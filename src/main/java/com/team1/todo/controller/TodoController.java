@@ -1,82 +1,141 @@
 package com.team1.todo.controller;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.team1.todo.dto.TodoBatchOperationDto;
+import com.team1.todo.dto.TodoBatchResultDto;
 import com.team1.todo.dto.TodoDto;
+import com.team1.todo.dto.TodoFilterDto;
+import com.team1.todo.dto.TodoPageDto;
 import com.team1.todo.dto.TodoRequestDto;
+import com.team1.todo.dto.TodoStatusMoveDto;
 import com.team1.todo.entity.Todo;
 import com.team1.todo.entity.TodoStatus;
-import com.team1.todo.entity.User;
-import com.team1.todo.mapper.TodoMapper;
 import com.team1.todo.repository.TodoRepository;
 import com.team1.todo.repository.TodoStatusRepository;
-import com.team1.todo.repository.UserRepository;
+import com.team1.todo.security.AuthenticatedUser;
+import com.team1.todo.service.TodoBatchService;
+import com.team1.todo.service.TodoExportService;
 import com.team1.todo.service.TodoService;
 
 @RestController
 @RequestMapping("/api/full-todos")
 public class TodoController {
 
+    // Lets the browser keep the listing but revalidate it with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final int MAX_PERMISSION_IDS = 1000;
+
     private final TodoRepository todoRepository;
     private final TodoService todoService;
-    private final UserRepository userRepository;
     private final TodoStatusRepository todoStatusRepository;
+    private final TodoExportService todoExportService;
+    private final TodoBatchService todoBatchService;
 
     @Autowired
-    public TodoController(TodoRepository todoRepository, TodoService todoService, UserRepository userRepository, TodoStatusRepository todoStatusRepository) {
+    public TodoController(TodoRepository todoRepository, TodoService todoService, TodoStatusRepository todoStatusRepository, TodoExportService todoExportService, TodoBatchService todoBatchService) {
         this.todoRepository = todoRepository;
         this.todoService = todoService;
-        this.userRepository = userRepository;
         this.todoStatusRepository = todoStatusRepository;
+        this.todoExportService = todoExportService;
+        this.todoBatchService = todoBatchService;
     }
 
     @GetMapping
-    public List<TodoDto> getAllTodos() {
-        return todoRepository.findAll().stream()
-                .map(TodoMapper::toDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<TodoPageDto> getAllTodos(@ModelAttribute TodoFilterDto filter, WebRequest request) {
+        Long viewerId = getCurrentUser().getId();
+        String etag = todoService.listingEtag(viewerId, filterKey(filter));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .body(todoService.findPage(filter, viewerId));
+    }
+
+    @GetMapping("/search")
+    public TodoPageDto searchTodos(@RequestParam("q") String query, @ModelAttribute TodoFilterDto filter) {
+        return todoService.search(query, filter, getCurrentUser().getId());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @ModelAttribute TodoFilterDto filter,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long viewerId = getCurrentUser().getId();
+
+        // NDJSON unless the client explicitly asks for CSV
+        if (accept != null && accept.contains(TodoExportService.CSV)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(TodoExportService.CSV + ";charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.csv\"")
+                    .body(out -> todoExportService.writeCsv(filter, viewerId, out));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TodoExportService.NDJSON))
+                .body(out -> todoExportService.writeNdjson(filter, viewerId, out));
     }
 
     @GetMapping("/{id}")
-    public TodoDto getTodoById(@PathVariable Long id) {
-        return todoRepository.findById(id)
-                .map(TodoMapper::toDto)
-                .orElseThrow(() -> new RuntimeException("Todo not found"));
+    public ResponseEntity<TodoDto> getTodoById(@PathVariable Long id) {
+        TodoDto todo = todoService.withPermissions(findTodoDto(id), getCurrentUser().getId());
+        return ResponseEntity.ok().eTag(versionTag(todo)).body(todo);
     }
 
     @PostMapping({"/", ""})
     public ResponseEntity<TodoDto> createTodo(@RequestBody TodoRequestDto todoRequest) {
         todoRequest.setCreatedById(getCurrentUser().getId());
         Todo savedTodo = todoService.createFromDto(todoRequest);
-        return new ResponseEntity<>(TodoMapper.toDto(savedTodo), HttpStatus.CREATED);
+        return new ResponseEntity<>(findTodoDto(savedTodo.getId()), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    public List<TodoBatchResultDto> applyBatch(@RequestBody List<TodoBatchOperationDto> operations) {
+        return todoBatchService.apply(operations, getCurrentUser().getId());
+    }
+
+    @PatchMapping("/status")
+    public List<TodoBatchResultDto> moveStatuses(@RequestBody List<TodoStatusMoveDto> moves) {
+        return todoBatchService.moveStatuses(moves, getCurrentUser().getId());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TodoDto> updateTodo(@PathVariable Long id, @RequestBody TodoRequestDto todoRequest) {
+    public ResponseEntity<TodoDto> updateTodo(@PathVariable Long id, @RequestBody TodoRequestDto todoRequest,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // Get the todo to update
         Todo existingTodo = todoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
                         
         // Get the current authenticated user
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         
         // Check if the user is authorized to update this todo
         if (!todoService.isUserAuthorizedToUpdateTodo(existingTodo, currentUser.getId())) {
@@ -87,8 +146,9 @@ public class TodoController {
         }
         
         // If authorized, proceed with the update
-        Todo updatedTodo = todoService.updateFromDto(id, todoRequest);
-        return ResponseEntity.ok(TodoMapper.toDto(updatedTodo));
+        Todo updatedTodo = todoService.updateFromDto(id, todoRequest, parseIfMatch(ifMatch));
+        TodoDto todo = findTodoDto(updatedTodo.getId());
+        return ResponseEntity.ok().eTag(versionTag(todo)).body(todo);
     }
 
     @DeleteMapping("/{id}")
@@ -99,7 +159,7 @@ public class TodoController {
                         HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
                         
         // Get the current authenticated user
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         
         // Check if the user is authorized to delete this todo
         if (!todoService.isUserAuthorizedToUpdateTodo(todoToDelete, currentUser.getId())) {
@@ -114,6 +174,17 @@ public class TodoController {
         return ResponseEntity.noContent().build();
     }
 
+    // Permission bits (TodoDto.PERMISSION_*) for the current user on each requested todo, in one query;
+    // ids that do not exist are left out of the result
+    @PostMapping("/permissions")
+    public Map<Long, Integer> getPermissions(@RequestBody List<Long> todoIds) {
+        if (todoIds.size() > MAX_PERMISSION_IDS) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "At most " + MAX_PERMISSION_IDS + " todo ids per request");
+        }
+        return todoService.findPermissions(todoIds, getCurrentUser().getId());
+    }
+
     @GetMapping("/can-edit/{todoId}/user/{userId}")
     public ResponseEntity<Boolean> canUserEditTodo(@PathVariable Long todoId, @PathVariable Long userId) {
         // Get the todo
@@ -123,7 +194,7 @@ public class TodoController {
         
         
         // Make sure the user requesting the check is either the user being checked or has admin rights
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         if (!currentUser.getId().equals(userId) && !currentUser.getSystemRoleNames().contains("system_admin")) {
             throw new ResponseStatusException(
                 HttpStatus.FORBIDDEN,
@@ -136,14 +207,46 @@ public class TodoController {
         return ResponseEntity.ok(canEdit);
     }
     
-    private User getCurrentUser() {
+    private String versionTag(TodoDto todo) {
+        return "\"" + todo.getVersion() + "\"";
+    }
+
+    // Accepts "3" or *. If-Match uses strong comparison (RFC 9110 13.1.1), so a weak tag such as W/"3"
+    // never matches, and neither does anything that is not one of our version tags
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match any version");
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match any version");
+        }
+    }
+
+    private String filterKey(TodoFilterDto filter) {
+        return filter.getTeamId() + "," + filter.getStatusId() + "," + filter.getAssignedToId() + ","
+                + filter.getCreatedById() + "," + filter.getDueFrom() + "," + filter.getDueTo() + ","
+                + filter.getCursor() + "," + filter.getLimit();
+    }
+
+    private TodoDto findTodoDto(Long id) {
+        return todoRepository.findDtoById(id)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
+    }
+
+    // The principal already carries the id and roles, so no user lookup is needed
+    private AuthenticatedUser getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
         }
-        
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+        return user;
     }
 }
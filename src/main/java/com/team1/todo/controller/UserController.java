@@ -1,8 +1,10 @@
 package com.team1.todo.controller;
 
+import com.team1.todo.dto.UserDirectoryPageDto;
 import com.team1.todo.dto.UserDto;
 import com.team1.todo.mapper.UserMapper;
 import com.team1.todo.repository.UserRepository;
+import com.team1.todo.service.UserDirectoryService;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,9 +14,11 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserDirectoryService userDirectoryService;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, UserDirectoryService userDirectoryService) {
         this.userRepository = userRepository;
+        this.userDirectoryService = userDirectoryService;
     }
 
     @GetMapping
@@ -24,6 +28,16 @@ public class UserController {
                 .collect(Collectors.toList());
     }
 
+    // Paged and searchable; prefer this over the full list, which loads every user with roles and teams
+    @GetMapping("/directory")
+    public UserDirectoryPageDto getDirectory(@RequestParam(value = "q", required = false) String query,
+                                             @RequestParam(value = "match", required = false) String match,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "limit", required = false) Integer limit,
+                                             @RequestParam(value = "include", required = false) String include) {
+        return userDirectoryService.findPage(query, match, cursor, limit, "memberships".equals(include));
+    }
+
     @GetMapping("/{id}")
     public UserDto getUserById(@PathVariable Long id) {
         return userRepository.findById(id)
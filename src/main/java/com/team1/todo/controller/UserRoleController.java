@@ -6,6 +6,7 @@ import com.team1.todo.entity.UserSystemRole;
 import com.team1.todo.repository.SystemRoleRepository;
 import com.team1.todo.repository.UserRepository;
 import com.team1.todo.repository.UserSystemRoleRepository;
+import com.team1.todo.security.PrincipalCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,10 +20,13 @@ public class UserRoleController {
 
     private final UserRepository userRepository;
     private final SystemRoleRepository systemRoleRepository;
+    private final PrincipalCache principalCache;
 
-    public UserRoleController(UserRepository userRepository, SystemRoleRepository systemRoleRepository) {
+    public UserRoleController(UserRepository userRepository, SystemRoleRepository systemRoleRepository,
+                              PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.systemRoleRepository = systemRoleRepository;
+        this.principalCache = principalCache;
     }
 
 
@@ -48,6 +52,8 @@ public class UserRoleController {
         }
 
         userRepository.save(user);
+        // Drops the cached principal and the role claims of tokens issued before this change
+        principalCache.invalidate(user.getUsername());
 
         return ResponseEntity.ok().build();
     }
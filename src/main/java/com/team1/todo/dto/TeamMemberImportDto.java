@@ -0,0 +1,36 @@
+package com.team1.todo.dto;
+
+public class TeamMemberImportDto {
+    public static final String UPSERT = "upsert";
+    public static final String REMOVE = "remove";
+
+    // upsert (default) adds the user or changes their role; remove takes them out of the team
+    private String op;
+    private String username;
+    // Team role name for upsert, e.g. team_member or team_lead
+    private String roleName;
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public void setRoleName(String roleName) {
+        this.roleName = roleName;
+    }
+}
@@ -0,0 +1,37 @@
+package com.team1.todo.dto;
+
+public class TeamMemberImportResultDto {
+    private final int index;
+    private final String op;
+    private final String username;
+    private final int status;
+    private final String message;
+
+    public TeamMemberImportResultDto(int index, String op, String username, int status, String message) {
+        this.index = index;
+        this.op = op;
+        this.username = username;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,4 @@
+package com.team1.todo.dto;
+
+// One member of a team as listed by /api/teaminfo/{teamId}/members and inside /api/teaminfo/all
+public record TeamMemberView(Long userId, String username, Long roleId, String roleName) {}
@@ -0,0 +1,4 @@
+package com.team1.todo.dto;
+
+// (user, team) pair returned by set-based membership lookups
+public record TeamMembershipKey(Long userId, Long teamId) {}
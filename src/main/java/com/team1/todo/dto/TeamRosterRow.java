@@ -0,0 +1,4 @@
+package com.team1.todo.dto;
+
+// Flat team-with-member row; the member columns are null for a team without members
+public record TeamRosterRow(Long teamId, String teamName, Long userId, String username, Long roleId, String roleName) {}
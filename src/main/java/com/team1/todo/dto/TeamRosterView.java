@@ -0,0 +1,24 @@
+package com.team1.todo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A team with all of its members, as listed by /api/teaminfo/all
+public record TeamRosterView(Long teamId, String teamName, List<TeamMemberView> members) {
+
+    // Groups rows ordered by team into rosters in a single pass
+    public static List<TeamRosterView> group(List<TeamRosterRow> rows) {
+        List<TeamRosterView> rosters = new ArrayList<>();
+        TeamRosterView current = null;
+        for (TeamRosterRow row : rows) {
+            if (current == null || !current.teamId().equals(row.teamId())) {
+                current = new TeamRosterView(row.teamId(), row.teamName(), new ArrayList<>());
+                rosters.add(current);
+            }
+            if (row.userId() != null) {
+                current.members().add(new TeamMemberView(row.userId(), row.username(), row.roleId(), row.roleName()));
+            }
+        }
+        return rosters;
+    }
+}
@@ -0,0 +1,37 @@
+package com.team1.todo.dto;
+
+public class TodoBatchOperationDto {
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+
+    private String op;
+    // Target todo for update and delete
+    private Long id;
+    // Field values for create and update
+    private TodoRequestDto todo;
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TodoRequestDto getTodo() {
+        return todo;
+    }
+
+    public void setTodo(TodoRequestDto todo) {
+        this.todo = todo;
+    }
+}
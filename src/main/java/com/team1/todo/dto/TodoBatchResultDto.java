@@ -0,0 +1,37 @@
+package com.team1.todo.dto;
+
+public class TodoBatchResultDto {
+    private final int index;
+    private final String op;
+    private final Long id;
+    private final int status;
+    private final String message;
+
+    public TodoBatchResultDto(int index, String op, Long id, int status, String message) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -3,17 +3,46 @@ package com.team1.todo.dto;
 import java.time.LocalDateTime;
 
 public class TodoDto {
+    // Bits of the permissions field; edit and delete follow the same rule today but are reported separately
+    public static final int PERMISSION_EDIT = 1;
+    public static final int PERMISSION_DELETE = 2;
+
     private Long id;
     private String title;
     private String description;
     private LocalDateTime dueDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     private SimpleUserDto createdBy;
     private SimpleUserDto assignedTo;
     private SimpleTeamDto team;
     private SimpleStatusDto status;
+    // What the requesting user may do with this todo; set on list and single-todo responses
+    private Integer permissions;
+
+    public TodoDto() {}
+
+    // Used by the JPQL constructor projection in TodoRepository
+    public TodoDto(Long id, String title, String description, LocalDateTime dueDate,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                   Long createdById, String createdByUsername,
+                   Long assignedToId, String assignedToUsername,
+                   Long teamId, String teamName,
+                   Long statusId, String statusName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.createdBy = createdById != null ? new SimpleUserDto(createdById, createdByUsername) : null;
+        this.assignedTo = assignedToId != null ? new SimpleUserDto(assignedToId, assignedToUsername) : null;
+        this.team = teamId != null ? new SimpleTeamDto(teamId, teamName) : null;
+        this.status = statusId != null ? new SimpleStatusDto(statusId, statusName) : null;
+    }
 
     public static class SimpleUserDto {
         private Long id;
@@ -102,6 +131,14 @@ public class TodoDto {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public SimpleUserDto getCreatedBy() {
         return createdBy;
     }
@@ -133,4 +170,12 @@ public class TodoDto {
     public void setStatus(SimpleStatusDto status) {
         this.status = status;
     }
+
+    public Integer getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(Integer permissions) {
+        this.permissions = permissions;
+    }
 }
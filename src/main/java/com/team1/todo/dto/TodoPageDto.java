@@ -0,0 +1,25 @@
+package com.team1.todo.dto;
+
+import java.util.List;
+
+public class TodoPageDto {
+    private final List<TodoDto> items;
+    private final String nextCursor;
+
+    public TodoPageDto(List<TodoDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TodoDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.team1.todo.dto;
+
+public class TodoStatusMoveDto {
+    private Long id;
+    private Long statusId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public void setStatusId(Long statusId) {
+        this.statusId = statusId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.team1.todo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One user in the directory; teamMemberships is only present when the request asked for memberships
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserDirectoryEntryDto(Long id, String username, LocalDateTime createdAt, List<String> systemRoles,
+                                    List<UserTeamRoleView> teamMemberships) {
+
+    public UserDirectoryEntryDto withTeamMemberships(List<UserTeamRoleView> memberships) {
+        return new UserDirectoryEntryDto(id, username, createdAt, systemRoles, memberships);
+    }
+}
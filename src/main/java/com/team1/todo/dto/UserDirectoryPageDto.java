@@ -0,0 +1,25 @@
+package com.team1.todo.dto;
+
+import java.util.List;
+
+public class UserDirectoryPageDto {
+    private final List<UserDirectoryEntryDto> items;
+    private final String nextCursor;
+
+    public UserDirectoryPageDto(List<UserDirectoryEntryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserDirectoryEntryDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
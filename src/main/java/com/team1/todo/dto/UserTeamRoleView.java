@@ -0,0 +1,4 @@
+package com.team1.todo.dto;
+
+// One team of a user with the user's role in it, as listed by /api/teaminfo/user/{userId}/role
+public record UserTeamRoleView(Long teamId, String teamName, Long roleId, String roleName) {}
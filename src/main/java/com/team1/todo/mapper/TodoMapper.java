@@ -1,5 +1,9 @@
 package com.team1.todo.mapper;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
 import com.team1.todo.dto.TodoDto;
 import com.team1.todo.entity.Todo;
 
@@ -12,6 +16,7 @@ public class TodoMapper {
         dto.setDueDate(todo.getDueDate());
         dto.setCreatedAt(todo.getCreatedAt());
         dto.setUpdatedAt(todo.getUpdatedAt());
+        dto.setVersion(todo.getVersion());
 
         if (todo.getCreatedBy() != null) {
             dto.setCreatedBy(new TodoDto.SimpleUserDto(todo.getCreatedBy().getId(), todo.getCreatedBy().getUsername()));
@@ -31,4 +36,38 @@ public class TodoMapper {
 
         return dto;
     }
+
+    // Maps a row selected with TodoQueryService.SELECT_COLUMNS
+    public static TodoDto fromRow(ResultSet rs, int rowNum) throws SQLException {
+        TodoDto dto = new TodoDto();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setDescription(rs.getString("description"));
+        dto.setDueDate(rs.getObject("due_date", LocalDateTime.class));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        dto.setVersion(rs.getLong("version"));
+
+        long createdById = rs.getLong("created_by_id");
+        if (!rs.wasNull()) {
+            dto.setCreatedBy(new TodoDto.SimpleUserDto(createdById, rs.getString("created_by_username")));
+        }
+
+        long assignedToId = rs.getLong("assigned_to_id");
+        if (!rs.wasNull()) {
+            dto.setAssignedTo(new TodoDto.SimpleUserDto(assignedToId, rs.getString("assigned_to_username")));
+        }
+
+        long teamId = rs.getLong("team_id");
+        if (!rs.wasNull()) {
+            dto.setTeam(new TodoDto.SimpleTeamDto(teamId, rs.getString("team_name")));
+        }
+
+        long statusId = rs.getLong("status_id");
+        if (!rs.wasNull()) {
+            dto.setStatus(new TodoDto.SimpleStatusDto(statusId, rs.getString("status_name")));
+        }
+
+        return dto;
+    }
 }
@@ -1,11 +1,18 @@
 package com.team1.todo.repository;
 
+import com.team1.todo.dto.TeamMemberView;
+import com.team1.todo.dto.TeamMembershipKey;
+import com.team1.todo.dto.UserTeamRoleView;
 import com.team1.todo.entity.Team;
 import com.team1.todo.entity.TeamMember;
 import com.team1.todo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +23,39 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     boolean existsByUserAndTeam(User user, Team team);
     Optional<TeamMember> findByUserAndTeam(User user, Team team);
     Optional<TeamMember> findByTeamIdAndUserId(Long teamId, Long userId);
-}
\ No newline at end of file
+
+    @RestResource(exported = false)
+    @Query("SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId")
+    List<Long> findTeamIdsByUserId(@Param("userId") Long userId);
+
+    @RestResource(exported = false)
+    @Query("""
+        SELECT new com.team1.todo.dto.TeamMembershipKey(tm.user.id, tm.team.id)
+        FROM TeamMember tm
+        WHERE tm.user.id IN :userIds AND tm.team.id IN :teamIds
+    """)
+    List<TeamMembershipKey> findMemberships(@Param("userIds") Collection<Long> userIds,
+                                            @Param("teamIds") Collection<Long> teamIds);
+
+    @RestResource(exported = false)
+    @Query("""
+        SELECT new com.team1.todo.dto.TeamMemberView(u.id, u.username, r.id, r.name)
+        FROM TeamMember tm
+        JOIN tm.user u
+        JOIN tm.teamRole r
+        WHERE tm.team.id = :teamId
+        ORDER BY tm.id
+    """)
+    List<TeamMemberView> findMemberViewsByTeamId(@Param("teamId") Long teamId);
+
+    @RestResource(exported = false)
+    @Query("""
+        SELECT new com.team1.todo.dto.UserTeamRoleView(t.id, t.name, r.id, r.name)
+        FROM TeamMember tm
+        JOIN tm.team t
+        JOIN tm.teamRole r
+        WHERE tm.user.id = :userId
+        ORDER BY t.id
+    """)
+    List<UserTeamRoleView> findTeamRoleViewsByUserId(@Param("userId") Long userId);
+}
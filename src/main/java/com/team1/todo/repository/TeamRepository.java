@@ -1,9 +1,27 @@
 package com.team1.todo.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import com.team1.todo.dto.TeamRosterRow;
 import com.team1.todo.entity.Team;
 
 @RepositoryRestResource
-public interface TeamRepository extends JpaRepository<Team, Long> {}
\ No newline at end of file
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // Every team with its members as flat rows, ordered so each team's rows are contiguous
+    @RestResource(exported = false)
+    @Query("""
+        SELECT new com.team1.todo.dto.TeamRosterRow(t.id, t.name, u.id, u.username, r.id, r.name)
+        FROM Team t
+        LEFT JOIN t.members tm
+        LEFT JOIN tm.user u
+        LEFT JOIN tm.teamRole r
+        ORDER BY t.id, tm.id
+    """)
+    List<TeamRosterRow> findAllRosterRows();
+}
@@ -0,0 +1,63 @@
+package com.team1.todo.security;
+
+import com.team1.todo.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Immutable principal put in the SecurityContext by JwtAuthFilter; carries no password and no JPA state
+public final class AuthenticatedUser implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final List<String> systemRoleNames;
+    private final Set<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, List<String> systemRoleNames) {
+        this.id = id;
+        this.username = username;
+        this.systemRoleNames = List.copyOf(systemRoleNames);
+        // Same authority names as User.getAuthorities
+        this.authorities = this.systemRoleNames.stream()
+                .map(name -> new SimpleGrantedAuthority("ROLE_" + name.toUpperCase()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getSystemRoleNames());
+    }
+
+    public static AuthenticatedUser from(VerifiedToken token) {
+        return new AuthenticatedUser(token.userId(), token.username(), token.roles());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public List<String> getSystemRoleNames() {
+        return systemRoleNames;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -1,15 +1,15 @@
 package com.team1.todo.security;
 
+import com.team1.todo.entity.User;
 import com.team1.todo.service.UserDetailService;
-import com.team1.todo.service.DatabaseSessionManager;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,7 +26,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private DatabaseSessionManager sessionManager;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    // "claims" trusts the roles signed into the token; "database" reloads them on every cache miss
+    @Value("${security.auth.principal-source:claims}")
+    private String principalSource;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -34,38 +41,49 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
+        // One parse and signature check per request; everything below reads the verified claims
+        VerifiedToken token = null;
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
-                logger.error("JWT Token validation failed", e);
+            token = jwtUtil.verify(requestTokenHeader.substring(7)).orElse(null);
+            if (token == null) {
+                logger.debug("JWT Token validation failed");
+            } else if (tokenRevocationStore.isRevoked(token.jti())) {
+                logger.debug("JWT Token has been revoked");
+                token = null;
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                try {
-                    Long userId = jwtUtil.extractUserId(jwtToken);
-                    if (userId != null) {
-                        sessionManager.setCurrentUserId(userId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Could not set audit context: {}");
-                }
-            }
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, token);
+            AuthenticatedUser principal = resolvePrincipal(token);
+
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            // The audit user is attached per writing transaction by AuditingDataSource
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolvePrincipal(VerifiedToken token) {
+        AuthenticatedUser cached = principalCache.get(token.username());
+        if (cached != null) {
+            return cached;
+        }
+
+        if ("claims".equals(principalSource) && token.userId() != null && token.roles() != null
+                && principalCache.isCurrent(token.username(), token.issuedAtMillis())) {
+            AuthenticatedUser principal = AuthenticatedUser.from(token);
+            principalCache.put(principal, token.issuedAtMillis());
+            return principal;
+        }
+
+        long loadedAt = System.currentTimeMillis();
+        User user = userDetailsService.loadUserByUsername(token.username());
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        principalCache.put(principal, loadedAt);
+        return principal;
+    }
 }
@@ -0,0 +1,74 @@
+package com.team1.todo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Short-lived cache of authenticated principals by username. invalidate() must be called whenever a user's
+// roles or credentials change; it also stops older tokens' role claims from being trusted for that user.
+@Component
+public class PrincipalCache {
+
+    @Value("${security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMillis;
+
+    private final Map<String, Entry> principals = new ConcurrentHashMap<>();
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    private record Entry(AuthenticatedUser principal, long expiresAtMillis) {}
+
+    public AuthenticatedUser get(String username) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = principals.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            principals.remove(username, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    // resolvedAtMillis is when the principal's data was read; a later invalidation wins over this put
+    public void put(AuthenticatedUser principal, long resolvedAtMillis) {
+        if (!enabled || !isCurrent(principal.getUsername(), resolvedAtMillis)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (principals.size() >= maxEntries) {
+            principals.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (principals.size() >= maxEntries) {
+                principals.clear();
+            }
+        }
+        principals.put(principal.getUsername(), new Entry(principal, now + ttlSeconds * 1000));
+    }
+
+    // Role claims are only trusted when the token was issued after the user's last change
+    public boolean isCurrent(String username, long issuedAtMillis) {
+        Long changed = invalidatedAt.get(username);
+        return changed == null || issuedAtMillis > changed;
+    }
+
+    public void invalidate(String username) {
+        long now = System.currentTimeMillis();
+        invalidatedAt.put(username, now);
+        principals.remove(username);
+        // Every token issued before an old invalidation has expired by now
+        invalidatedAt.values().removeIf(changed -> changed < now - tokenLifetimeMillis);
+    }
+}
@@ -0,0 +1,202 @@
+package com.team1.todo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Revoked access tokens by jti, checked by JwtAuthFilter on every authenticated request without touching
+ * the database. A Bloom filter answers the common "not revoked" case; its rare positives are confirmed
+ * against an exact map of jti to token expiry. revoked_tokens (V13) is the durable copy: revocations are
+ * written there first, and every instance polls it for revocations made elsewhere, so another instance
+ * may accept a revoked token for up to one poll interval.
+ * Entries are dropped once the token would have expired; the Bloom filter is rebuilt from the survivors.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final String INSERT_SQL = """
+        INSERT INTO revoked_tokens (jti, expires_at) VALUES (?, ?)
+        ON CONFLICT (jti) DO NOTHING
+        """;
+
+    private static final String SELECT_SINCE_SQL = """
+        SELECT jti, expires_at, revoked_at FROM revoked_tokens
+        WHERE revoked_at > ? AND expires_at > now()
+        """;
+
+    private static final String EXPIRE_SQL = "DELETE FROM revoked_tokens WHERE expires_at <= now()";
+
+    // revoked_at is the inserting transaction's start time, so rows can commit slightly out of order
+    private static final long POLL_OVERLAP_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedEntries;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Timestamp lastSeenRevokedAt = new Timestamp(0);
+    private final ScheduledExecutorService poller;
+    private final Counter rejected;
+    private final Counter pollFailures;
+
+    public TokenRevocationStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                @Value("${security.token-revocation.expected-entries:100000}") int expectedEntries,
+                                @Value("${security.token-revocation.poll-interval-ms:5000}") long pollIntervalMs,
+                                @Value("${security.token-revocation.sweep-interval-seconds:60}") long sweepIntervalSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries);
+        this.rejected = Counter.builder("app.token_revocation.rejected").register(meterRegistry);
+        this.pollFailures = Counter.builder("app.token_revocation.poll.failures").register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.token_revocation.entries", Tags.empty(), revoked);
+
+        // Load what is already revoked before the first request is authenticated
+        poll();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("token-revocation-");
+        threadFactory.setDaemon(true);
+        this.poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null || expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    // Durable first, so a failed write surfaces to the caller instead of revoking on this instance only
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, jti, new Timestamp(expiresAtMillis));
+        remember(jti, expiresAtMillis);
+    }
+
+    private void remember(String jti, long expiresAtMillis) {
+        revoked.put(jti, expiresAtMillis);
+        filter.put(jti);
+    }
+
+    void poll() {
+        try {
+            Timestamp since = new Timestamp(Math.max(0, lastSeenRevokedAt.getTime() - POLL_OVERLAP_MILLIS));
+            jdbcTemplate.query(SELECT_SINCE_SQL, rs -> {
+                remember(rs.getString("jti"), rs.getTimestamp("expires_at").getTime());
+                Timestamp revokedAt = rs.getTimestamp("revoked_at");
+                if (revokedAt.after(lastSeenRevokedAt)) {
+                    lastSeenRevokedAt = revokedAt;
+                }
+            }, since);
+        } catch (RuntimeException e) {
+            pollFailures.increment();
+            log.warn("Loading revoked tokens failed: {}", e.getMessage());
+        }
+    }
+
+    // A Bloom filter cannot forget, so it is rebuilt from the entries that are still live
+    void sweep() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Revocations that landed in the old filter while this one was being filled
+        revoked.keySet().forEach(rebuilt::put);
+
+        try {
+            jdbcTemplate.update(EXPIRE_SQL);
+        } catch (RuntimeException e) {
+            log.warn("Deleting expired revoked tokens failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    // Lock-free Bloom filter sized for a 1% false-positive rate at the expected number of entries
+    private static final class BloomFilter {
+
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final long bits;
+
+        BloomFilter(int expectedEntries) {
+            long wanted = (long) Math.ceil(-expectedEntries * Math.log(0.01) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (wanted + 63) / 64));
+            this.bits = words.length() * 64L;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a with a final avalanche, split into the two hashes of the double-hashing scheme
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.US_ASCII)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.team1.todo.security;
+
+import java.util.List;
+
+// Claims of a JWT whose signature and expiry have been checked; built once per token by JwtUtil.verify
+// roles is null for tokens issued without a roles claim, jti for tokens issued without an id
+public record VerifiedToken(String jti, String username, Long userId, List<String> roles,
+                            long issuedAtMillis, long expiresAtMillis) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
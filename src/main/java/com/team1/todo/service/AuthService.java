@@ -1,31 +1,33 @@
 package com.team1.todo.service;
 
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PreDestroy;
+
 import com.team1.todo.entity.PublicUser;
 import com.team1.todo.entity.User;
 import com.team1.todo.repository.UserRepository;
 import com.team1.todo.security.JwtUtil;
+import com.team1.todo.security.PrincipalCache;
 
 @Service
 public class AuthService {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -35,24 +37,42 @@ public class AuthService {
     @Autowired
     private UserService userService;
 
-    private static final SecureRandom secureRandom = new SecureRandom();
+    @Autowired
+    private PrincipalCache principalCache;
 
-    // Rate limiting
-    private final ConcurrentHashMap<String, AttemptCounter> loginAttempts = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, AttemptCounter> twoFaAttempts = new ConcurrentHashMap<>();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
-    private static final int MAX_LOGIN_ATTEMPTS = 3;
-    private static final int MAX_2FA_ATTEMPTS = 3;
-    private static final int LOCKOUT_DURATION_MINUTES = 10;
-    private static final int SECURITY_DELAY_MS = 1000; // Constant time delay
+    // Completes padded login responses; tasks only hand over a finished result, so one thread is enough
+    private final ScheduledExecutorService loginDelayScheduler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("login-delay-"));
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private static final long SECURITY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1000); // Constant time delay
 
     // Input validation patterns
     private static final Pattern TOTP_PATTERN = Pattern.compile("^[0-9]{6}$");
     private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]{3,50}$");
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$");
 
-    @Transactional
-    public User registerUser(String username, String password) {
+    // Checks run on the caller's thread; BCrypt and the insert run on the hashing pool, so the request thread
+    // is released while the hash is computed, like authenticate()
+    public CompletableFuture<User> registerUser(String username, String password) {
+        try {
+            return startRegistration(username, password);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<User> startRegistration(String username, String password) {
         if (!isValidUsername(username)) {
             throw new SecurityException("Invalid username format");
         }
@@ -61,127 +81,130 @@ public class AuthService {
             throw new SecurityException("Password does not meet security requirements");
         }
 
-        username = username.toLowerCase().trim();
+        String normalizedUsername = username.toLowerCase().trim();
 
-        if (userRepository.findByUsername(username).isPresent()) {
+        if (userRepository.findByUsername(normalizedUsername).isPresent()) {
             throw new SecurityException("Username already exists");
         }
 
-        try {
-
-            String salt = generateSalt();
-            String totpSecret = totpService.generateSecret();
+        // A full hashing queue fails here, outside the wrapping below, so it still surfaces as 503
+        return passwordHashingService.encode(password).thenApply(passwordHash -> {
+            try {
+                String salt = generateSalt();
+                String totpSecret = totpService.generateSecret();
 
-            User user = new User();
-            user.setUsername(username);
-            user.setPasswordSalt(salt);
-            user.setPasswordHash(passwordEncoder.encode(password));
-            user.setTwoFaSecret(totpSecret);
+                User user = new User();
+                user.setUsername(normalizedUsername);
+                user.setPasswordSalt(salt);
+                user.setPasswordHash(passwordHash);
+                user.setTwoFaSecret(totpSecret);
 
-            return userService.createUserWithDefaultSystemRole(user);
+                // Transactional on its own, since this runs off the request thread
+                return userService.createUserWithDefaultSystemRole(user);
 
-        } catch (Exception e) {
-            throw new SecurityException(e);
-        }
+            } catch (Exception e) {
+                throw new SecurityException(e);
+            }
+        });
     }
 
-    public AuthenticationResponse authenticate(String username, String password, String totpCode) {
-        long startTime = System.currentTimeMillis();
+    // Every outcome, success or failure, completes no earlier than SECURITY_DELAY_NANOS after the call.
+    // The padding is a scheduled completion, so no request thread sleeps through it.
+    public CompletableFuture<AuthenticationResponse> authenticate(String username, String password, String totpCode,
+                                                                  String clientIp) {
+        long startNanos = System.nanoTime();
 
+        CompletableFuture<AuthenticationResponse> outcome;
         try {
-            return performAuthentication(username, password, totpCode);
-        } finally {
-
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            if (elapsedTime < SECURITY_DELAY_MS) {
-                try {
-                    Thread.sleep(SECURITY_DELAY_MS - elapsedTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+            outcome = performAuthentication(username, password, totpCode, clientIp);
+        } catch (PasswordHashingService.HashingCapacityExceededException e) {
+            // Overload is not a per-user signal, so shedding it immediately reveals nothing
+            return CompletableFuture.failedFuture(e);
+        } catch (RuntimeException e) {
+            outcome = CompletableFuture.failedFuture(e);
+        }
+        return padded(outcome, startNanos);
+    }
+
+    private <T> CompletableFuture<T> padded(CompletableFuture<T> outcome, long startNanos) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        outcome.whenComplete((value, error) -> {
+            Runnable complete = () -> {
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    result.complete(value);
                 }
+            };
+            long remainingNanos = SECURITY_DELAY_NANOS - (System.nanoTime() - startNanos);
+            if (remainingNanos > 0) {
+                loginDelayScheduler.schedule(complete, remainingNanos, TimeUnit.NANOSECONDS);
+            } else {
+                complete.run();
             }
-        }
+        });
+        return result;
     }
 
-    public AuthenticationResponse performAuthentication(String username, String password, String totpCode) {
+    // Lookups and rate limits run on the caller's thread; BCrypt and everything after it run on the hashing pool
+    public CompletableFuture<AuthenticationResponse> performAuthentication(String username, String password, String totpCode,
+                                                                           String clientIp) {
         if (!isValidInput(username, password, totpCode)) {
-            incrementLoginAttempts(username);
+            loginAttemptLimiter.recordLoginFailure(username, clientIp);
             throw new SecurityException("Authentication failed");
         }
-        username = username.toLowerCase().trim();
+        String normalizedUsername = username.toLowerCase().trim();
 
-        if (isRateLimited(username)) {
+        if (loginAttemptLimiter.isLoginLimited(normalizedUsername, clientIp)) {
             throw new SecurityException("Authentication failed - too many attempts");
         }
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        boolean userExists = userOpt.isPresent();
-        boolean passwordValid = false;
-        boolean totpValid = false;
+        // Roles are fetched here because the rest of the flow runs outside this thread's persistence context
+        Optional<User> userOpt = userRepository.findByUsernameWithRoles(normalizedUsername);
+        if (userOpt.isEmpty()) {
+            return passwordHashingService.matchesDummy(password)
+                    .thenApply(ignored -> {
+                        loginAttemptLimiter.recordLoginFailure(normalizedUsername, clientIp);
+                        throw new SecurityException("Authentication failed");
+                    });
+        }
 
-        if (userExists) {
-            User user = userOpt.get();
+        User user = userOpt.get();
+        return passwordHashingService.matches(password, user.getPasswordHash())
+                .thenApply(passwordValid -> completeAuthentication(user, normalizedUsername, passwordValid, totpCode, clientIp));
+    }
 
-            try {
-                passwordValid = passwordEncoder.matches(password, user.getPasswordHash());
-            } catch (Exception e) {
-                passwordValid = false;
-            }
+    private AuthenticationResponse completeAuthentication(User user, String username, boolean passwordValid, String totpCode,
+                                                          String clientIp) {
+        boolean totpValid = false;
 
-            if (passwordValid) {
-                if (user.getTwoFaSecret() != null && !user.getTwoFaSecret().isEmpty()) {
-                    if (isValidTotpCode(totpCode) && !is2FARateLimited(username)) {
-                        if (totpService.verifyCode(user.getTwoFaSecret(), totpCode)) {
-                            totpValid = true;
-                        } else {
-                            increment2FAAttempts(username);
-                        }
-                    } else if (is2FARateLimited(username)) {
-                        throw new SecurityException("Authentication failed - too many 2FA attempts");
+        if (passwordValid) {
+            if (user.getTwoFaSecret() != null && !user.getTwoFaSecret().isEmpty()) {
+                if (isValidTotpCode(totpCode) && !loginAttemptLimiter.isTwoFaLimited(username)) {
+                    if (totpService.verifyCode(user.getTwoFaSecret(), totpCode)) {
+                        totpValid = true;
+                    } else {
+                        loginAttemptLimiter.recordTwoFaFailure(username);
                     }
+                } else if (loginAttemptLimiter.isTwoFaLimited(username)) {
+                    throw new SecurityException("Authentication failed - too many 2FA attempts");
                 }
             }
-        } else {
-            passwordEncoder.matches("dummy", "$2a$12$dummy.hash.to.prevent.timing.attacks");
         }
 
-        if (userExists && passwordValid && totpValid) {
-            User user = userOpt.get();
+        if (passwordValid && totpValid) {
             String token = jwtUtil.generateToken(user, user.getId());
-            loginAttempts.remove(username);
-            twoFaAttempts.remove(username);
+            String refreshToken = refreshTokenService.issue(user.getId());
+            loginAttemptLimiter.recordSuccess(username);
 
-            return new AuthenticationResponse(token, true, true, user.getPrimaryRole(), user);
+            return new AuthenticationResponse(token, refreshToken, jwtUtil.getExpirationMillis() / 1000,
+                    true, true, user.getPrimaryRole(), user);
         } else {
-            incrementLoginAttempts(username);
+            loginAttemptLimiter.recordLoginFailure(username, clientIp);
             throw new SecurityException("Authentication failed");
         }
     }
 
-    // Rate limiting methods
-    private boolean isRateLimited(String username) {
-        AttemptCounter counter = loginAttempts.get(username);
-        if (counter == null) {
-            return false;
-        }
-        if (counter.isExpired()) {
-            loginAttempts.remove(username);
-            return false;
-        }
-        return counter.getAttempts() >= MAX_LOGIN_ATTEMPTS;
-    }
-
-    private boolean is2FARateLimited(String username) {
-        AttemptCounter counter = twoFaAttempts.get(username);
-        if (counter == null) {
-            return false;
-        }
-        if (counter.isExpired()) {
-            twoFaAttempts.remove(username);
-            return false;
-        }
-        return counter.getAttempts() >= MAX_2FA_ATTEMPTS;
-    }
-
     // Validation methods
     private boolean isValidUsername(String username) {
         return username != null && USERNAME_PATTERN.matcher(username).matches();
@@ -201,26 +224,15 @@ public class AuthService {
                 isValidTotpCode(totpCode);
     }
 
-    private void incrementLoginAttempts(String username) {
-        loginAttempts.compute(username, (key, counter) -> {
-            if (counter == null || counter.isExpired()) {
-                return new AttemptCounter();
-            } else {
-                counter.increment();
-                return counter;
-            }
-        });
-    }
-
-    private void increment2FAAttempts(String username) {
-        twoFaAttempts.compute(username, (key, counter) -> {
-            if (counter == null || counter.isExpired()) {
-                return new AttemptCounter();
-            } else {
-                counter.increment();
-                return counter;
-            }
-        });
+    // Rebuilt from the stored secret, so every instance can serve the same QR image URL, restarts included
+    public Optional<String> provisioningUri(String username) {
+        if (!isValidUsername(username)) {
+            return Optional.empty();
+        }
+        String normalizedUsername = username.toLowerCase().trim();
+        return userRepository.findByUsername(normalizedUsername)
+                .filter(user -> user.getTwoFaSecret() != null && !user.getTwoFaSecret().isEmpty())
+                .map(user -> totpService.generateQrCodeUrl(user.getTwoFaSecret(), normalizedUsername));
     }
 
     public String setup2FA(String username) {
@@ -247,7 +259,7 @@ public class AuthService {
 
         username = username.toLowerCase().trim();
 
-        if (is2FARateLimited(username)) {
+        if (loginAttemptLimiter.isTwoFaLimited(username)) {
             return false;
         }
 
@@ -258,17 +270,22 @@ public class AuthService {
             boolean isValid = totpService.verifyCode(user.getTwoFaSecret(), totpCode);
 
             if (!isValid) {
-                increment2FAAttempts(username);
+                loginAttemptLimiter.recordTwoFaFailure(username);
             }
 
             return isValid;
 
         } catch (Exception e) {
-            increment2FAAttempts(username);
+            loginAttemptLimiter.recordTwoFaFailure(username);
             return false;
         }
     }
 
+    @PreDestroy
+    void shutdownLoginDelayScheduler() {
+        loginDelayScheduler.shutdownNow();
+    }
+
     @Transactional
     public void resetTwoFaSecret(String username) {
         User user = userRepository.findByUsername(username)
@@ -276,6 +293,7 @@ public class AuthService {
 
         user.setTwoFaSecret(totpService.generateSecret());
         userRepository.save(user);
+        principalCache.invalidate(username);
     }
 
     private String generateSalt() {
@@ -284,35 +302,20 @@ public class AuthService {
         return Base64.getEncoder().encodeToString(salt);
     }
 
-    // Rate limiting helper class
-    private static class AttemptCounter {
-        private final AtomicInteger attempts = new AtomicInteger(1);
-        private final LocalDateTime timestamp = LocalDateTime.now();
-
-        public void increment() {
-            attempts.incrementAndGet();
-        }
-
-        public int getAttempts() {
-            return attempts.get();
-        }
-
-        public boolean isExpired() {
-            return timestamp.isBefore(LocalDateTime.now().minusMinutes(LOCKOUT_DURATION_MINUTES));
-        }
-    }
-
-
-
     public static class AuthenticationResponse {
             private final String token;
+            private final String refreshToken;
+            private final long expiresIn;
             private final boolean requiresTwoFa;
             private boolean success;
             private String role;
             private final PublicUser user;
 
-            public AuthenticationResponse(String token, boolean requiresTwoFa, boolean success, String role, User user) {
+            public AuthenticationResponse(String token, String refreshToken, long expiresIn, boolean requiresTwoFa,
+                                          boolean success, String role, User user) {
                 this.token = token;
+                this.refreshToken = refreshToken;
+                this.expiresIn = expiresIn;
                 this.requiresTwoFa = requiresTwoFa;
                 this.success = success;
                 this.role = role;
@@ -321,6 +324,9 @@ public class AuthService {
 
             // Getters
             public String getToken() { return token; }
+            public String getRefreshToken() { return refreshToken; }
+            // Access token lifetime in seconds
+            public long getExpiresIn() { return expiresIn; }
             public boolean isRequiresTwoFa() { return requiresTwoFa; }
             public boolean isSuccess() { return success; }
             public String getRole() { return role; }
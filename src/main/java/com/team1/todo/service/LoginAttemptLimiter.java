@@ -0,0 +1,111 @@
+package com.team1.todo.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Failed login and 2FA attempts per username and per client IP, each over a sliding window.
+// With the shared store enabled, attempts on other instances count too.
+@Service
+public class LoginAttemptLimiter {
+
+    private static final int BUCKETS = 10;
+
+    private static final String LOGIN_USERNAME = "login.username";
+    private static final String LOGIN_IP = "login.ip";
+    private static final String TWO_FA_USERNAME = "2fa.username";
+
+    private final SlidingWindowRateLimiter loginsByUsername;
+    private final SlidingWindowRateLimiter loginsByIp;
+    private final SlidingWindowRateLimiter twoFaByUsername;
+    private final ScheduledExecutorService sweeper;
+    private final SharedRateLimitStore sharedStore;
+
+    public LoginAttemptLimiter(MeterRegistry meterRegistry,
+                               @Value("${security.login-limit.window-minutes:10}") long windowMinutes,
+                               @Value("${security.login-limit.max-attempts-per-username:3}") int maxPerUsername,
+                               @Value("${security.login-limit.max-attempts-per-ip:30}") int maxPerIp,
+                               @Value("${security.login-limit.max-2fa-attempts:3}") int maxTwoFa,
+                               @Value("${security.login-limit.max-tracked-keys:50000}") int maxKeys,
+                               Optional<SharedRateLimitStore> sharedStore) {
+        Duration window = Duration.ofMinutes(windowMinutes);
+        this.loginsByUsername = new SlidingWindowRateLimiter(LOGIN_USERNAME, maxPerUsername, window, BUCKETS, maxKeys, meterRegistry);
+        this.loginsByIp = new SlidingWindowRateLimiter(LOGIN_IP, maxPerIp, window, BUCKETS, maxKeys, meterRegistry);
+        this.twoFaByUsername = new SlidingWindowRateLimiter(TWO_FA_USERNAME, maxTwoFa, window, BUCKETS, maxKeys, meterRegistry);
+
+        this.sharedStore = sharedStore.orElse(null);
+        if (this.sharedStore != null) {
+            this.sharedStore.registerLimit(LOGIN_USERNAME, maxPerUsername);
+            this.sharedStore.registerLimit(LOGIN_IP, maxPerIp);
+            this.sharedStore.registerLimit(TWO_FA_USERNAME, maxTwoFa);
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("login-limit-sweeper-");
+        threadFactory.setDaemon(true);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long sweepSeconds = Math.max(1, window.toSeconds() / BUCKETS);
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    public boolean isLoginLimited(String username, String clientIp) {
+        return loginsByUsername.isLimited(username) || loginsByIp.isLimited(clientIp)
+                || sharedLimited(LOGIN_USERNAME, username) || sharedLimited(LOGIN_IP, clientIp);
+    }
+
+    public void recordLoginFailure(String username, String clientIp) {
+        loginsByUsername.record(username);
+        loginsByIp.record(clientIp);
+        recordShared(LOGIN_USERNAME, username);
+        recordShared(LOGIN_IP, clientIp);
+    }
+
+    public boolean isTwoFaLimited(String username) {
+        return twoFaByUsername.isLimited(username) || sharedLimited(TWO_FA_USERNAME, username);
+    }
+
+    public void recordTwoFaFailure(String username) {
+        twoFaByUsername.record(username);
+        recordShared(TWO_FA_USERNAME, username);
+    }
+
+    // A successful login clears the username's counters; the IP keeps its history
+    public void recordSuccess(String username) {
+        loginsByUsername.reset(username);
+        twoFaByUsername.reset(username);
+        if (sharedStore != null) {
+            sharedStore.reset(LOGIN_USERNAME, username);
+            sharedStore.reset(TWO_FA_USERNAME, username);
+        }
+    }
+
+    private boolean sharedLimited(String limiter, String key) {
+        return sharedStore != null && sharedStore.isLimited(limiter, key);
+    }
+
+    private void recordShared(String limiter, String key) {
+        if (sharedStore != null) {
+            sharedStore.record(limiter, key);
+        }
+    }
+
+    private void sweep() {
+        for (SlidingWindowRateLimiter limiter : List.of(loginsByUsername, loginsByIp, twoFaByUsername)) {
+            limiter.sweep();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,115 @@
+package com.team1.todo.service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt work on a pool sized to the CPU cores with a bounded queue, so a burst of logins or
+ * registrations cannot occupy every request thread. When the queue is full, calls fail with
+ * {@link HashingCapacityExceededException} instead of waiting.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    // A real hash, so unknown usernames cost the same BCrypt work as known ones
+    private final String dummyHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password-hashing.threads:0}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        meterRegistry.gauge("app.password_hashing.queue.depth", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("app.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount);
+        this.waitTimer = Timer.builder("app.password_hashing.wait").register(meterRegistry);
+        this.encodeTimer = Timer.builder("app.password_hashing.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("app.password_hashing.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("app.password_hashing.rejected").register(meterRegistry);
+
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> {
+            try {
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
+    }
+
+    // Same cost as matches() against a stored hash; always false
+    public CompletableFuture<Boolean> matchesDummy(String rawPassword) {
+        return matches(rawPassword, dummyHash).thenApply(ignored -> false);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer hashTimer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(work);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static class HashingCapacityExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfterSeconds;
+
+        public HashingCapacityExceededException(long retryAfterSeconds) {
+            super("Server is busy, please retry shortly");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.team1.todo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageConfig;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Renders 2FA provisioning QR codes once per provisioning URI. Images are addressed by the SHA-256 of
+ * the URI, so the secret never appears in an image URL; the caller rebuilds the URI from the stored
+ * secret and the rendered images live in bounded caches.
+ */
+@Service
+public class QrCodeService {
+
+    public static final String SVG = "svg";
+    public static final String PNG = "png";
+
+    private static final int QUIET_ZONE_MODULES = 4;
+    private static final int PNG_MODULE_PIXELS = 8;
+
+    private final SingleFlightCache<String, byte[]> svgByKey;
+    private final SingleFlightCache<String, byte[]> pngByKey;
+
+    public QrCodeService(MeterRegistry meterRegistry,
+                         @Value("${qr.cache.max-entries:256}") int maxEntries) {
+        this.svgByKey = new SingleFlightCache<>("qr.svg", maxEntries, meterRegistry);
+        this.pngByKey = new SingleFlightCache<>("qr.png", maxEntries, meterRegistry);
+    }
+
+    // The key a provisioning URI's images are served under
+    public String keyOf(String provisioningUri) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(provisioningUri.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<byte[]> render(String provisioningUri, String format) {
+        String key = keyOf(provisioningUri);
+        return switch (format) {
+            case SVG -> Optional.of(svgByKey.get(key, k -> renderSvg(provisioningUri)));
+            case PNG -> Optional.of(pngByKey.get(key, k -> renderPng(provisioningUri)));
+            default -> Optional.empty();
+        };
+    }
+
+    // One path of unit squares in module coordinates; the client scales it, so size does not matter here
+    private byte[] renderSvg(String uri) {
+        BitMatrix matrix = encode(uri);
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        StringBuilder path = new StringBuilder(width * height);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                path.append('M').append(runStart).append(' ').append(y)
+                        .append('h').append(x - runStart).append("v1h-").append(x - runStart).append('z');
+            }
+        }
+
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + width + " " + height
+                + "\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] renderPng(String uri) {
+        BitMatrix modules = encode(uri);
+        int scale = PNG_MODULE_PIXELS;
+        BitMatrix scaled = new BitMatrix(modules.getWidth() * scale, modules.getHeight() * scale);
+        for (int y = 0; y < modules.getHeight(); y++) {
+            for (int x = 0; x < modules.getWidth(); x++) {
+                if (modules.get(x, y)) {
+                    scaled.setRegion(x * scale, y * scale, scale, scale);
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            MatrixToImageWriter.writeToStream(scaled, "PNG", out, new MatrixToImageConfig(0xFF000000, 0xFFFFFFFF));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Width and height 0 give one pixel per module plus the quiet zone
+    private BitMatrix encode(String uri) {
+        try {
+            return new QRCodeWriter().encode(uri, BarcodeFormat.QR_CODE, 0, 0,
+                    Map.of(EncodeHintType.MARGIN, QUIET_ZONE_MODULES));
+        } catch (WriterException e) {
+            throw new IllegalStateException("Could not encode QR code", e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.team1.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import com.team1.todo.security.AuthenticatedUser;
+import com.team1.todo.security.JwtUtil;
+
+/**
+ * Long-lived refresh tokens that renew the short-lived access JWT without going through password, 2FA
+ * and the constant-time login padding again. Tokens are random and only their SHA-256 is stored (V12),
+ * so a refresh costs one indexed update plus the access token's HMAC signature.
+ * Each refresh rotates the token; a rotated token that comes back means it was copied, and the whole
+ * family is revoked so neither the holder nor the thief can continue. A token rotated only moments ago is
+ * rejected without revoking, since that is usually a second browser tab racing the first.
+ * Used and revoked rows are kept for the reuse window so replays are still detected, then swept.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    // Marks the token used and reads everything the new access token needs in the same statement
+    private static final String CONSUME_SQL = """
+        UPDATE refresh_tokens r SET used_at = now()
+        FROM users u
+        WHERE r.token_hash = ? AND u.id = r.user_id
+          AND r.used_at IS NULL AND r.revoked_at IS NULL AND r.expires_at > now()
+        RETURNING r.user_id, r.family_id, u.username,
+            ARRAY(SELECT sr.name FROM user_system_roles usr
+                  JOIN system_roles sr ON sr.id = usr.role_id
+                  WHERE usr.user_id = r.user_id) AS roles
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO refresh_tokens (user_id, token_hash, family_id, expires_at)
+        VALUES (?, ?, ?, ?)
+        """;
+
+    private static final String REVOKE_REUSED_FAMILY_SQL = """
+        UPDATE refresh_tokens SET revoked_at = now()
+        WHERE family_id = (SELECT family_id FROM refresh_tokens
+                           WHERE token_hash = ? AND used_at < now() - ? * INTERVAL '1 millisecond')
+          AND revoked_at IS NULL
+        """;
+
+    private static final String REVOKE_FAMILY_SQL = """
+        UPDATE refresh_tokens SET revoked_at = now()
+        WHERE family_id = (SELECT family_id FROM refresh_tokens WHERE token_hash = ?)
+          AND revoked_at IS NULL
+        """;
+
+    private static final String PRUNE_SQL = """
+        DELETE FROM refresh_tokens
+        WHERE expires_at < now()
+           OR used_at < now() - ? * INTERVAL '1 millisecond'
+           OR revoked_at < now() - ? * INTERVAL '1 millisecond'
+        """;
+
+    private static final long SWEEP_INTERVAL_MINUTES = 10;
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    public record TokenPair(String accessToken, String refreshToken, long expiresInSeconds) {}
+
+    private record ConsumedToken(long userId, UUID familyId, String username, List<String> roles) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtUtil jwtUtil;
+    private final long refreshLifetimeMillis;
+    private final long reuseGraceMillis;
+    private final long reuseWindowMillis;
+    private final Counter rotations;
+    private final Counter rejections;
+    private final Counter reuseDetections;
+    private final Counter pruned;
+    private final ScheduledExecutorService sweeper;
+
+    public RefreshTokenService(JdbcTemplate jdbcTemplate, JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshLifetimeMillis,
+                               @Value("${jwt.refresh-reuse-grace:10000}") long reuseGraceMillis,
+                               @Value("${jwt.refresh-reuse-window:86400000}") long reuseWindowMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtUtil = jwtUtil;
+        this.refreshLifetimeMillis = refreshLifetimeMillis;
+        this.reuseGraceMillis = reuseGraceMillis;
+        this.reuseWindowMillis = reuseWindowMillis;
+        this.rotations = Counter.builder("app.refresh_tokens.rotations").register(meterRegistry);
+        this.rejections = Counter.builder("app.refresh_tokens.rejections").register(meterRegistry);
+        this.reuseDetections = Counter.builder("app.refresh_tokens.reuse_detected").register(meterRegistry);
+        this.pruned = Counter.builder("app.refresh_tokens.pruned").register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("refresh-token-sweeper-");
+        threadFactory.setDaemon(true);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MINUTES, SWEEP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Starts a new token family at login
+    @Transactional
+    public String issue(Long userId) {
+        return insert(userId, UUID.randomUUID());
+    }
+
+    // Empty when the token is unknown, expired, revoked or already used; the caller answers 401.
+    // Returns instead of throwing so the family revocation on reuse is committed.
+    @Transactional
+    public Optional<TokenPair> rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        String tokenHash = hash(refreshToken);
+
+        List<ConsumedToken> consumed = jdbcTemplate.query(CONSUME_SQL, (rs, rowNum) -> new ConsumedToken(
+                rs.getLong("user_id"),
+                rs.getObject("family_id", UUID.class),
+                rs.getString("username"),
+                SqlArrays.strings(rs.getArray("roles"))), tokenHash);
+
+        if (consumed.isEmpty()) {
+            int revoked = jdbcTemplate.update(REVOKE_REUSED_FAMILY_SQL, tokenHash, reuseGraceMillis);
+            if (revoked > 0) {
+                reuseDetections.increment();
+                log.warn("Refresh token reuse detected; revoked {} token(s) of its family", revoked);
+            } else {
+                rejections.increment();
+            }
+            return Optional.empty();
+        }
+
+        ConsumedToken token = consumed.get(0);
+        AuthenticatedUser principal = new AuthenticatedUser(token.userId(), token.username(), token.roles());
+        String accessToken = jwtUtil.generateToken(principal, token.userId());
+        String nextRefreshToken = insert(token.userId(), token.familyId());
+        rotations.increment();
+        return Optional.of(new TokenPair(accessToken, nextRefreshToken, jwtUtil.getExpirationMillis() / 1000));
+    }
+
+    // Logout: ends the session the token belongs to, including tokens rotated out of it
+    @Transactional
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        jdbcTemplate.update(REVOKE_FAMILY_SQL, hash(refreshToken));
+    }
+
+    // Expired tokens, and used or revoked ones past the reuse window; replaying those is simply rejected
+    void sweep() {
+        try {
+            pruned.increment(jdbcTemplate.update(PRUNE_SQL, reuseWindowMillis, reuseWindowMillis));
+        } catch (RuntimeException e) {
+            log.warn("Pruning refresh tokens failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private String insert(Long userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        jdbcTemplate.update(INSERT_SQL, userId, hash(token), familyId,
+                new Timestamp(System.currentTimeMillis() + refreshLifetimeMillis));
+        return token;
+    }
+
+    // Tokens carry 256 random bits, so a plain digest is enough; no salt or slow hash needed
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
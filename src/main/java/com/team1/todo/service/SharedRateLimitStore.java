@@ -0,0 +1,225 @@
+package com.team1.todo.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Login throttling counters shared across instances through the UNLOGGED login_rate_limit table (V11).
+ * Attempts are aggregated locally and written in one batched upsert per flush interval; the same flush
+ * reloads the set of keys that are over their limit cluster-wide, so checks never wait on the database.
+ * A key can therefore get at most one flush interval of extra attempts per instance.
+ * Buckets use wall-clock time because they are compared across hosts.
+ */
+@Service
+@ConditionalOnProperty(name = "security.login-limit.shared-store.enabled", havingValue = "true")
+public class SharedRateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedRateLimitStore.class);
+
+    private static final int BUCKETS = 10;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO login_rate_limit (limiter, key, bucket, attempts)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (limiter, key, bucket) DO UPDATE SET attempts = login_rate_limit.attempts + EXCLUDED.attempts
+        """;
+
+    private static final String RESET_SQL = "DELETE FROM login_rate_limit WHERE limiter = ? AND key = ?";
+
+    private static final String LIMITED_KEYS_SQL = """
+        SELECT r.limiter, r.key
+        FROM login_rate_limit r
+        JOIN unnest(?::varchar[], ?::int[]) AS l(limiter, max_attempts) ON l.limiter = r.limiter
+        WHERE r.bucket > ?
+        GROUP BY r.limiter, r.key, l.max_attempts
+        HAVING SUM(r.attempts) >= l.max_attempts
+        ORDER BY SUM(r.attempts) DESC
+        LIMIT ?
+        """;
+
+    private static final String EXPIRE_SQL = "DELETE FROM login_rate_limit WHERE bucket <= ?";
+
+    private record CounterKey(String limiter, String key) {}
+
+    private record BucketKey(String limiter, String key, long bucket) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long bucketMillis;
+    private final int maxLimitedKeys;
+
+    private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+    // Attempts not yet written, per bucket; merge() and remove() are atomic per key, so no increment is lost
+    private final ConcurrentHashMap<BucketKey, Integer> pending = new ConcurrentHashMap<>();
+    private final Set<CounterKey> pendingResets = ConcurrentHashMap.newKeySet();
+    // Keys at or over their limit across all instances, as of the last flush
+    private volatile Set<CounterKey> limitedKeys = Set.of();
+
+    private final ScheduledExecutorService flusher;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private long lastExpiredBucket;
+
+    public SharedRateLimitStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                @Value("${security.login-limit.window-minutes:10}") long windowMinutes,
+                                @Value("${security.login-limit.shared-store.flush-interval-ms:500}") long flushIntervalMs,
+                                @Value("${security.login-limit.max-tracked-keys:50000}") int maxLimitedKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketMillis = Math.max(1, Duration.ofMinutes(windowMinutes).toMillis() / BUCKETS);
+        this.maxLimitedKeys = maxLimitedKeys;
+        this.flushTimer = Timer.builder("app.rate_limit.shared.flush").register(meterRegistry);
+        this.flushFailures = Counter.builder("app.rate_limit.shared.flush.failures").register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.rate_limit.shared.pending", Tags.empty(), pending);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("login-limit-flush-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void registerLimit(String limiter, int maxAttempts) {
+        limits.put(limiter, maxAttempts);
+    }
+
+    public boolean isLimited(String limiter, String key) {
+        if (key == null) {
+            return false;
+        }
+        CounterKey counterKey = new CounterKey(limiter, key);
+        return limitedKeys.contains(counterKey) && !pendingResets.contains(counterKey);
+    }
+
+    public void record(String limiter, String key) {
+        if (key == null) {
+            return;
+        }
+        pending.merge(new BucketKey(limiter, key, currentBucket()), 1, Integer::sum);
+    }
+
+    public void reset(String limiter, String key) {
+        if (key == null) {
+            return;
+        }
+        CounterKey counterKey = new CounterKey(limiter, key);
+        pending.keySet().removeIf(bucketKey -> bucketKey.limiter().equals(limiter) && bucketKey.key().equals(key));
+        pendingResets.add(counterKey);
+    }
+
+    void flush() {
+        long start = System.nanoTime();
+        try {
+            writePending();
+            refreshLimitedKeys();
+            expireOldBuckets();
+        } catch (RuntimeException e) {
+            // Local limits still apply; the shared view catches up on the next successful flush
+            flushFailures.increment();
+            log.warn("Flushing shared login rate limits failed: {}", e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writePending() {
+        List<CounterKey> resets = new ArrayList<>(pendingResets);
+        if (!resets.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESET_SQL, resets, resets.size(), (ps, counterKey) -> {
+                ps.setString(1, counterKey.limiter());
+                ps.setString(2, counterKey.key());
+            });
+            pendingResets.removeAll(resets);
+        }
+
+        Map<BucketKey, Integer> drained = new HashMap<>();
+        for (BucketKey bucketKey : pending.keySet()) {
+            Integer attempts = pending.remove(bucketKey);
+            if (attempts != null) {
+                drained.put(bucketKey, attempts);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        drained.forEach((bucketKey, attempts) ->
+                rows.add(new Object[] { bucketKey.limiter(), bucketKey.key(), bucketKey.bucket(), attempts }));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            // Put the attempts back for the next flush, except for keys reset in the meantime
+            drained.forEach((bucketKey, attempts) -> {
+                if (!pendingResets.contains(new CounterKey(bucketKey.limiter(), bucketKey.key()))) {
+                    pending.merge(bucketKey, attempts, Integer::sum);
+                }
+            });
+            throw e;
+        }
+    }
+
+    private void refreshLimitedKeys() {
+        if (limits.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Integer>> limitEntries = new ArrayList<>(limits.entrySet());
+        String[] limiters = limitEntries.stream().map(Map.Entry::getKey).toArray(String[]::new);
+        Integer[] maxAttempts = limitEntries.stream().map(Map.Entry::getValue).toArray(Integer[]::new);
+        long oldest = currentBucket() - BUCKETS;
+
+        Set<CounterKey> limited = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LIMITED_KEYS_SQL);
+            Array limiterArray = connection.createArrayOf("varchar", limiters);
+            Array maxArray = connection.createArrayOf("int4", maxAttempts);
+            ps.setArray(1, limiterArray);
+            ps.setArray(2, maxArray);
+            ps.setLong(3, oldest);
+            ps.setInt(4, maxLimitedKeys);
+            return ps;
+        }, rs -> {
+            limited.add(new CounterKey(rs.getString("limiter"), rs.getString("key")));
+        });
+        limitedKeys = limited;
+    }
+
+    private void expireOldBuckets() {
+        long expired = currentBucket() - BUCKETS;
+        if (expired > lastExpiredBucket) {
+            jdbcTemplate.update(EXPIRE_SQL, expired);
+            lastExpiredBucket = expired;
+        }
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+}
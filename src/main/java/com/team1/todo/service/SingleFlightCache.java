@@ -0,0 +1,130 @@
+package com.team1.todo.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Small bounded cache where concurrent misses for the same key share one load.
+ * Entries leave through {@link #evict}, {@link #clear}, the optional time-to-live, or the size cap,
+ * which drops the least recently used entries first.
+ */
+public class SingleFlightCache<K, V> {
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> value = new CompletableFuture<>();
+        final long createdNanos = System.nanoTime();
+        volatile long lastAccessNanos = createdNanos;
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+
+    public SingleFlightCache(String name, int maxEntries, MeterRegistry meterRegistry) {
+        this(name, maxEntries, null, meterRegistry);
+    }
+
+    // A null ttl keeps entries until they are evicted or pushed out by the size cap
+    public SingleFlightCache(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+        this.hits = Counter.builder("app.cache.hits").tag("cache", name).register(meterRegistry);
+        this.misses = Counter.builder("app.cache.misses").tag("cache", name).register(meterRegistry);
+        this.loadTimer = Timer.builder("app.cache.load").tag("cache", name).register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.cache.size", Tags.of("cache", name), entries);
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> existing = live(key);
+        if (existing == null) {
+            Entry<V> flight = new Entry<>();
+            existing = entries.putIfAbsent(key, flight);
+            if (existing == null) {
+                misses.increment();
+                return load(key, flight, loader);
+            }
+        }
+        hits.increment();
+        existing.lastAccessNanos = System.nanoTime();
+        try {
+            return existing.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    // Completed value without loading; null when absent, still loading or failed
+    public V getIfPresent(K key) {
+        Entry<V> existing = live(key);
+        if (existing == null || !existing.value.isDone() || existing.value.isCompletedExceptionally()) {
+            return null;
+        }
+        hits.increment();
+        existing.lastAccessNanos = System.nanoTime();
+        return existing.value.join();
+    }
+
+    // The entry for key unless its time-to-live ran out, in which case it is dropped
+    private Entry<V> live(K key) {
+        Entry<V> existing = entries.get(key);
+        if (existing != null && System.nanoTime() - existing.createdNanos > ttlNanos) {
+            entries.remove(key, existing);
+            return null;
+        }
+        return existing;
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private V load(K key, Entry<V> flight, Function<K, V> loader) {
+        long start = System.nanoTime();
+        try {
+            V value = loader.apply(key);
+            flight.value.complete(value);
+            flight.lastAccessNanos = System.nanoTime();
+            trimToSize();
+            return value;
+        } catch (RuntimeException e) {
+            // Failed loads are not cached; waiters see the same error and the next call retries
+            entries.remove(key, flight);
+            flight.value.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Caps are small (hundreds of entries), so sorting on overflow is cheaper than keeping an access order
+    private void trimToSize() {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> oldestFirst = entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos))
+                .limit(excess)
+                .toList();
+        oldestFirst.forEach(entry -> entries.remove(entry.getKey(), entry.getValue()));
+    }
+}
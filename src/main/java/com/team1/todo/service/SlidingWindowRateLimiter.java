@@ -0,0 +1,162 @@
+package com.team1.todo.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Counts events per key over a sliding window split into fixed time buckets (System.nanoTime based).
+ * At most maxKeys keys are tracked: idle keys are swept, and when the cap is still reached the least
+ * recently used keys that are below the limit are dropped, so flooding new keys cannot lift a lockout.
+ * Only when every tracked key is at its limit are the least recently used lockouts dropped as well
+ * (counted in app.rate_limit.limited_evictions); an untracked key is never limited, so a full map
+ * cannot lock everyone out.
+ */
+public class SlidingWindowRateLimiter {
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final int maxEvents;
+    private final int bucketCount;
+    private final long bucketNanos;
+    private final int maxKeys;
+    private final Counter evictions;
+    private final Counter limitedEvictions;
+
+    public SlidingWindowRateLimiter(String name, int maxEvents, Duration window, int bucketCount, int maxKeys,
+                                    MeterRegistry meterRegistry) {
+        this.maxEvents = maxEvents;
+        this.bucketCount = bucketCount;
+        this.bucketNanos = Math.max(1, window.toNanos() / bucketCount);
+        this.maxKeys = maxKeys;
+        this.evictions = Counter.builder("app.rate_limit.evictions").tag("limiter", name).register(meterRegistry);
+        this.limitedEvictions = Counter.builder("app.rate_limit.limited_evictions").tag("limiter", name)
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.rate_limit.keys", Tags.of("limiter", name), windows);
+    }
+
+    public boolean isLimited(String key) {
+        if (key == null) {
+            return false;
+        }
+        Window window = windows.get(key);
+        return window != null && window.count(currentBucket()) >= maxEvents;
+    }
+
+    public void record(String key) {
+        if (key == null) {
+            return;
+        }
+        long bucket = currentBucket();
+        if (windows.size() >= maxKeys && !windows.containsKey(key)) {
+            makeRoom(bucket);
+        }
+        windows.compute(key, (k, window) -> {
+            Window target = window != null ? window : new Window(bucketCount);
+            target.add(bucket);
+            return target;
+        });
+    }
+
+    public void reset(String key) {
+        if (key != null) {
+            windows.remove(key);
+        }
+    }
+
+    // Drops keys with no events left in the window; called periodically and when the cap is reached
+    public void sweep() {
+        long bucket = currentBucket();
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> window.isIdle(bucket) ? null : window);
+        }
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    // Evicts a tenth of the cap at a time so a flood of new keys does not sort the map on every call.
+    // Keys below the limit go first, oldest first; limited keys only fill up what they cannot free.
+    private synchronized void makeRoom(long bucket) {
+        if (windows.size() < maxKeys) {
+            return;
+        }
+        sweep();
+        int excess = windows.size() - maxKeys + 1 + maxKeys / 10;
+        List<Candidate> candidates = windows.entrySet().stream()
+                .map(entry -> new Candidate(entry.getKey(), entry.getValue().count(bucket) >= maxEvents,
+                        entry.getValue().lastBucket()))
+                .sorted(Comparator.comparing(Candidate::limited).thenComparingLong(Candidate::lastBucket))
+                .limit(excess)
+                .toList();
+        for (Candidate candidate : candidates) {
+            if (candidate.limited()) {
+                if (windows.remove(candidate.key()) != null) {
+                    limitedEvictions.increment();
+                }
+                continue;
+            }
+            // Re-checked under the key's lock, since the key may have reached its limit meanwhile
+            Window removed = windows.computeIfPresent(candidate.key(),
+                    (k, window) -> window.count(bucket) < maxEvents ? null : window);
+            if (removed == null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private record Candidate(String key, boolean limited, long lastBucket) {
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(System.nanoTime(), bucketNanos);
+    }
+
+    // Ring of buckets; a slot is reused once its bucket id falls out of the window
+    private static final class Window {
+        private final long[] bucketIds;
+        private final int[] counts;
+        private long lastBucket = Long.MIN_VALUE;
+
+        private Window(int bucketCount) {
+            this.bucketIds = new long[bucketCount];
+            this.counts = new int[bucketCount];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long bucket) {
+            int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+            lastBucket = Math.max(lastBucket, bucket);
+        }
+
+        synchronized int count(long currentBucket) {
+            long oldest = currentBucket - bucketIds.length;
+            int total = 0;
+            for (int i = 0; i < bucketIds.length; i++) {
+                if (bucketIds[i] > oldest) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        synchronized long lastBucket() {
+            return lastBucket;
+        }
+
+        synchronized boolean isIdle(long currentBucket) {
+            return lastBucket <= currentBucket - bucketIds.length;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.team1.todo.service;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads text[] columns without depending on the driver's Java array type
+final class SqlArrays {
+
+    private SqlArrays() {
+    }
+
+    // The array's result set has one (index, value) row per element
+    static List<String> strings(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        List<String> values = new ArrayList<>();
+        try (ResultSet rs = array.getResultSet()) {
+            while (rs.next()) {
+                values.add(rs.getString(2));
+            }
+        } finally {
+            array.free();
+        }
+        return values;
+    }
+}
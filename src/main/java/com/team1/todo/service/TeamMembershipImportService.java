@@ -0,0 +1,202 @@
+package com.team1.todo.service;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team1.todo.dto.TeamMemberImportDto;
+import com.team1.todo.dto.TeamMemberImportResultDto;
+
+/**
+ * Adds, re-roles and removes many members of one team in one transaction. Users, roles and the current
+ * memberships are each resolved with one set-based query, the diff is computed in memory, and the changes
+ * are written as JDBC batches. Rows that fail validation are reported per item and skipped.
+ */
+@Service
+public class TeamMembershipImportService {
+
+    public static final int MAX_IMPORT_SIZE = 1000;
+
+    // Also serializes concurrent imports into the same team, so neither can insert a duplicate membership
+    private static final String LOCK_TEAM_SQL = "SELECT id FROM teams WHERE id = ? FOR UPDATE";
+
+    private static final String USERS_SQL = "SELECT id, username FROM users WHERE username = ANY(?)";
+
+    private static final String ROLES_SQL = "SELECT id, name FROM team_roles WHERE name = ANY(?)";
+
+    private static final String MEMBERSHIPS_SQL =
+        "SELECT id, user_id, team_role_id FROM team_members WHERE team_id = ? AND user_id = ANY(?)";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO team_members (team_id, user_id, team_role_id) VALUES (?, ?, ?)";
+
+    private static final String UPDATE_ROLE_SQL = "UPDATE team_members SET team_role_id = ? WHERE id = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM team_members WHERE id = ?";
+
+    private record Membership(long rowId, long roleId) {}
+
+    private record Change(Long userId, Long roleId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TeamMembershipIndex teamMembershipIndex;
+    private final TeamVersionService teamVersionService;
+    private final TeamRosterCache teamRosterCache;
+
+    public TeamMembershipImportService(JdbcTemplate jdbcTemplate, TeamMembershipIndex teamMembershipIndex,
+                                       TeamVersionService teamVersionService, TeamRosterCache teamRosterCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.teamMembershipIndex = teamMembershipIndex;
+        this.teamVersionService = teamVersionService;
+        this.teamRosterCache = teamRosterCache;
+    }
+
+    @Transactional
+    public List<TeamMemberImportResultDto> apply(Long teamId, List<TeamMemberImportDto> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No members given");
+        }
+        if (rows.size() > MAX_IMPORT_SIZE) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "At most " + MAX_IMPORT_SIZE + " members per import");
+        }
+        if (jdbcTemplate.queryForList(LOCK_TEAM_SQL, Long.class, teamId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Team not found with id: " + teamId);
+        }
+
+        // Usernames are stored lower-cased, see AuthService.registerUser
+        List<String> usernames = new ArrayList<>(rows.size());
+        Set<String> roleNames = new HashSet<>();
+        for (TeamMemberImportDto row : rows) {
+            usernames.add(row.getUsername() == null ? null : row.getUsername().trim().toLowerCase(Locale.ROOT));
+            if (row.getRoleName() != null) {
+                roleNames.add(row.getRoleName().trim());
+            }
+        }
+
+        Map<String, Long> userIds = new HashMap<>();
+        queryByArray(USERS_SQL, "varchar", usernames.stream().filter(name -> name != null).distinct().toArray(),
+                rs -> userIds.put(rs.getString("username"), rs.getLong("id")));
+        Map<String, Long> roleIds = new HashMap<>();
+        if (!roleNames.isEmpty()) {
+            queryByArray(ROLES_SQL, "varchar", roleNames.toArray(),
+                    rs -> roleIds.put(rs.getString("name"), rs.getLong("id")));
+        }
+        Map<Long, List<Membership>> current = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(MEMBERSHIPS_SQL);
+                ps.setLong(1, teamId);
+                ps.setArray(2, connection.createArrayOf("int8", userIds.values().toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> current.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>())
+                    .add(new Membership(rs.getLong("id"), rs.getLong("team_role_id"))));
+        }
+
+        List<TeamMemberImportResultDto> results = new ArrayList<>(rows.size());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> roleUpdates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Change> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            TeamMemberImportDto row = rows.get(i);
+            String op = row.getOp() == null ? TeamMemberImportDto.UPSERT : row.getOp();
+            String username = usernames.get(i);
+            try {
+                if (!TeamMemberImportDto.UPSERT.equals(op) && !TeamMemberImportDto.REMOVE.equals(op)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown operation: " + op);
+                }
+                if (username == null || username.isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing username");
+                }
+                if (!seen.add(username)) {
+                    throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "Username appears more than once in this import");
+                }
+                Long userId = userIds.get(username);
+                if (userId == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+                }
+                List<Membership> memberships = current.getOrDefault(userId, List.of());
+
+                if (TeamMemberImportDto.REMOVE.equals(op)) {
+                    if (memberships.isEmpty()) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User is not a member of the team");
+                    }
+                    memberships.forEach(membership -> deletes.add(new Object[] { membership.rowId() }));
+                    removed.add(userId);
+                    results.add(new TeamMemberImportResultDto(i, op, username, HttpStatus.NO_CONTENT.value(), null));
+                    continue;
+                }
+
+                Long roleId = row.getRoleName() == null ? null : roleIds.get(row.getRoleName().trim());
+                if (roleId == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Role not found");
+                }
+                if (memberships.isEmpty()) {
+                    inserts.add(new Object[] { teamId, userId, roleId });
+                    added.add(new Change(userId, roleId));
+                    results.add(new TeamMemberImportResultDto(i, op, username, HttpStatus.CREATED.value(), null));
+                } else if (memberships.stream().allMatch(membership -> membership.roleId() == roleId)) {
+                    results.add(new TeamMemberImportResultDto(i, op, username, HttpStatus.OK.value(),
+                        "Already a member with this role"));
+                } else {
+                    memberships.forEach(membership -> roleUpdates.add(new Object[] { roleId, membership.rowId() }));
+                    added.add(new Change(userId, roleId));
+                    results.add(new TeamMemberImportResultDto(i, op, username, HttpStatus.OK.value(), null));
+                }
+            } catch (ResponseStatusException e) {
+                results.add(new TeamMemberImportResultDto(i, op, username, e.getStatusCode().value(), e.getReason()));
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!roleUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ROLE_SQL, roleUpdates);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        }
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            // In-memory views follow only once the rows are committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    added.forEach(change -> teamMembershipIndex.add(change.userId(), teamId, change.roleId()));
+                    removed.forEach(userId -> teamMembershipIndex.remove(userId, teamId));
+                    teamVersionService.bumpTeam(teamId);
+                    teamRosterCache.evict();
+                }
+            });
+        }
+        return results;
+    }
+
+    private void queryByArray(String sql, String elementType, Object[] values, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf(elementType, values));
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,260 @@
+package com.team1.todo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Every team membership held in memory, so authorization and assignment checks answer without SQL.
+ * Per user: the sorted ids of their teams. Per team: sorted member ids with the role id of each member.
+ * Sets are immutable primitive arrays replaced on write, so readers never lock and never box.
+ * <p>
+ * Membership write paths call {@link #add}, {@link #remove} and friends after their change is committed.
+ * A periodic full reload picks up anything written elsewhere (another instance, SQL cascades); writes made
+ * while a reload runs are replayed on top of it.
+ */
+@Service
+public class TeamMembershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamMembershipIndex.class);
+
+    private static final long[] NONE = new long[0];
+
+    private static final String LOAD_SQL = "SELECT user_id, team_id, team_role_id FROM team_members";
+
+    // Members sorted by user id; roleIds[i] is the role of userIds[i]
+    private record Roster(long[] userIds, long[] roleIds) {
+        static final Roster EMPTY = new Roster(NONE, NONE);
+    }
+
+    private record Index(Map<Long, long[]> teamsByUser, Map<Long, Roster> rostersByTeam) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer reloadTimer;
+    private final ScheduledExecutorService reloader;
+
+    private volatile Index index = new Index(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    // Non-null while a reload runs; guarded by this
+    private List<Runnable> writesDuringReload;
+
+    public TeamMembershipIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${team-membership.index.reload-interval-seconds:300}") long reloadIntervalSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reloadTimer = Timer.builder("app.team_membership.reload").register(meterRegistry);
+        meterRegistry.gauge("app.team_membership.users", Tags.empty(), this, self -> self.index.teamsByUser().size());
+        meterRegistry.gauge("app.team_membership.teams", Tags.empty(), this, self -> self.index.rostersByTeam().size());
+
+        boolean loaded = reload();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("team-membership-reload-");
+        threadFactory.setDaemon(true);
+        this.reloader = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        // Retry soon when the startup load failed, since every check would be denied until then
+        reloader.scheduleWithFixedDelay(this::reload, loaded ? reloadIntervalSeconds : Math.min(5, reloadIntervalSeconds),
+                reloadIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public boolean isMember(Long userId, Long teamId) {
+        if (userId == null || teamId == null) {
+            return false;
+        }
+        long[] teamIds = index.teamsByUser().get(userId);
+        return teamIds != null && Arrays.binarySearch(teamIds, teamId) >= 0;
+    }
+
+    public List<Long> teamIdsOf(Long userId) {
+        long[] teamIds = userId == null ? null : index.teamsByUser().get(userId);
+        return teamIds == null ? List.of() : Arrays.stream(teamIds).boxed().toList();
+    }
+
+    // Role id of the user in the team, or null when not a member
+    public Long roleOf(Long userId, Long teamId) {
+        Roster roster = teamId == null || userId == null ? null : index.rostersByTeam().get(teamId);
+        if (roster == null) {
+            return null;
+        }
+        int position = Arrays.binarySearch(roster.userIds(), userId);
+        return position >= 0 ? roster.roleIds()[position] : null;
+    }
+
+    // Adds the membership or changes its role
+    public void add(Long userId, Long teamId, Long roleId) {
+        write(() -> {
+            Index current = index;
+            current.teamsByUser().compute(userId, (id, teamIds) -> with(teamIds, teamId));
+            current.rostersByTeam().compute(teamId, (id, roster) -> withMember(roster, userId, roleId));
+        });
+    }
+
+    public void remove(Long userId, Long teamId) {
+        write(() -> {
+            Index current = index;
+            current.teamsByUser().computeIfPresent(userId, (id, teamIds) -> without(teamIds, teamId));
+            current.rostersByTeam().computeIfPresent(teamId, (id, roster) -> withoutMember(roster, userId));
+        });
+    }
+
+    public void removeTeam(Long teamId) {
+        write(() -> {
+            Index current = index;
+            Roster roster = current.rostersByTeam().remove(teamId);
+            if (roster != null) {
+                for (long userId : roster.userIds()) {
+                    current.teamsByUser().computeIfPresent(userId, (id, teamIds) -> without(teamIds, teamId));
+                }
+            }
+        });
+    }
+
+    public void removeUser(Long userId) {
+        write(() -> {
+            Index current = index;
+            long[] teamIds = current.teamsByUser().remove(userId);
+            if (teamIds != null) {
+                for (long teamId : teamIds) {
+                    current.rostersByTeam().computeIfPresent(teamId, (id, roster) -> withoutMember(roster, userId));
+                }
+            }
+        });
+    }
+
+    private synchronized void write(Runnable change) {
+        change.run();
+        if (writesDuringReload != null) {
+            writesDuringReload.add(change);
+        }
+    }
+
+    public boolean reload() {
+        synchronized (this) {
+            writesDuringReload = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        try {
+            Map<Long, List<long[]>> rows = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                long teamId = rs.getLong("team_id");
+                rows.computeIfAbsent(teamId, id -> new ArrayList<>())
+                        .add(new long[] { rs.getLong("user_id"), rs.getLong("team_role_id") });
+            });
+
+            Map<Long, long[]> teamsByUser = new ConcurrentHashMap<>();
+            Map<Long, Roster> rostersByTeam = new ConcurrentHashMap<>();
+            Map<Long, List<Long>> teamsPerUser = new HashMap<>();
+            rows.forEach((teamId, members) -> {
+                members.sort((a, b) -> Long.compare(a[0], b[0]));
+                long[] userIds = new long[members.size()];
+                long[] roleIds = new long[members.size()];
+                for (int i = 0; i < members.size(); i++) {
+                    userIds[i] = members.get(i)[0];
+                    roleIds[i] = members.get(i)[1];
+                    teamsPerUser.computeIfAbsent(userIds[i], id -> new ArrayList<>()).add(teamId);
+                }
+                rostersByTeam.put(teamId, new Roster(userIds, roleIds));
+            });
+            teamsPerUser.forEach((userId, teamIds) -> teamsByUser.put(userId,
+                    teamIds.stream().mapToLong(Long::longValue).sorted().toArray()));
+
+            synchronized (this) {
+                index = new Index(teamsByUser, rostersByTeam);
+                writesDuringReload.forEach(Runnable::run);
+                writesDuringReload = null;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                writesDuringReload = null;
+            }
+            // Keep serving the previous index; incremental writes still apply to it
+            log.warn("Reloading team memberships failed: {}", e.getMessage());
+            return false;
+        } finally {
+            reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    private static long[] with(long[] values, long value) {
+        if (values == null) {
+            return new long[] { value };
+        }
+        int position = Arrays.binarySearch(values, value);
+        if (position >= 0) {
+            return values;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(values, insertAt, result, insertAt + 1, values.length - insertAt);
+        return result;
+    }
+
+    // null removes the map entry once the last value is gone
+    private static long[] without(long[] values, long value) {
+        int position = Arrays.binarySearch(values, value);
+        if (position < 0) {
+            return values;
+        }
+        if (values.length == 1) {
+            return null;
+        }
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, position);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+        return result;
+    }
+
+    private static Roster withMember(Roster roster, long userId, long roleId) {
+        Roster current = roster == null ? Roster.EMPTY : roster;
+        int position = Arrays.binarySearch(current.userIds(), userId);
+        if (position >= 0) {
+            long[] roleIds = current.roleIds().clone();
+            roleIds[position] = roleId;
+            return new Roster(current.userIds(), roleIds);
+        }
+        int insertAt = -position - 1;
+        long[] userIds = with(current.userIds(), userId);
+        long[] roleIds = new long[userIds.length];
+        System.arraycopy(current.roleIds(), 0, roleIds, 0, insertAt);
+        roleIds[insertAt] = roleId;
+        System.arraycopy(current.roleIds(), insertAt, roleIds, insertAt + 1, current.roleIds().length - insertAt);
+        return new Roster(userIds, roleIds);
+    }
+
+    private static Roster withoutMember(Roster roster, long userId) {
+        int position = Arrays.binarySearch(roster.userIds(), userId);
+        if (position < 0) {
+            return roster;
+        }
+        if (roster.userIds().length == 1) {
+            return null;
+        }
+        long[] roleIds = new long[roster.roleIds().length - 1];
+        System.arraycopy(roster.roleIds(), 0, roleIds, 0, position);
+        System.arraycopy(roster.roleIds(), position + 1, roleIds, position, roleIds.length - position);
+        return new Roster(without(roster.userIds(), userId), roleIds);
+    }
+}
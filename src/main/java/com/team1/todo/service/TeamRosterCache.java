@@ -0,0 +1,36 @@
+package com.team1.todo.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.team1.todo.dto.TeamRosterView;
+
+// Cached result of /api/teaminfo/all: every team with its members, loaded by one query and rebuilt on any change.
+// The time-to-live bounds staleness from writes this instance does not see (other instances, direct SQL).
+@Service
+public class TeamRosterCache {
+
+    private static final String ROSTERS_KEY = "all";
+
+    private final SingleFlightCache<String, List<TeamRosterView>> rosters;
+
+    public TeamRosterCache(MeterRegistry meterRegistry,
+                           @Value("${teaminfo.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.rosters = new SingleFlightCache<>("teaminfo.rosters", 1, Duration.ofSeconds(ttlSeconds), meterRegistry);
+    }
+
+    public List<TeamRosterView> getRosters(Supplier<List<TeamRosterView>> loader) {
+        return rosters.get(ROSTERS_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    // Any team or membership change; the rosters are one cached value, so there is nothing finer to drop
+    public void evict() {
+        rosters.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package com.team1.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Monotonic change versions per team (and per todo creator), bumped by every write that
+ * changes what a listing would return. Listing endpoints hash the versions they cover into
+ * a strong ETag, so an unchanged view can be answered with 304 before any list query runs.
+ */
+@Service
+public class TeamVersionService {
+
+    // Differs per process, so ETags handed out before a restart never match
+    private final long epoch = new SecureRandom().nextLong();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> teamVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> creatorVersions = new ConcurrentHashMap<>();
+
+    public void bumpTeam(Long teamId) {
+        if (teamId != null) {
+            teamVersions.put(teamId, sequence.incrementAndGet());
+        }
+    }
+
+    public void bumpCreator(Long userId) {
+        if (userId != null) {
+            creatorVersions.put(userId, sequence.incrementAndGet());
+        }
+    }
+
+    public long getTeamVersion(Long teamId) {
+        return teamVersions.getOrDefault(teamId, 0L);
+    }
+
+    // Covers every team, so any bump anywhere changes it
+    public String allTeamsEtag() {
+        return toEtag(epoch + ":" + sequence.get());
+    }
+
+    // teamIds are the teams the viewer belongs to; the creator version covers todos they created elsewhere
+    public String todoListEtag(Collection<Long> teamIds, Long viewerId, String query) {
+        StringBuilder key = new StringBuilder(64 + teamIds.size() * 16)
+                .append(epoch).append('|')
+                .append(viewerId).append(':').append(creatorVersions.getOrDefault(viewerId, 0L)).append('|');
+        teamIds.stream().sorted().forEach(teamId ->
+                key.append(teamId).append(':').append(getTeamVersion(teamId)).append(','));
+        key.append('|').append(query != null ? query : "");
+        return toEtag(key.toString());
+    }
+
+    private String toEtag(String key) {
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,419 @@
+package com.team1.todo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team1.todo.dto.TeamMembershipKey;
+import com.team1.todo.dto.TodoBatchOperationDto;
+import com.team1.todo.dto.TodoBatchResultDto;
+import com.team1.todo.dto.TodoRequestDto;
+import com.team1.todo.dto.TodoStatusMoveDto;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.Todo;
+import com.team1.todo.entity.TodoStatus;
+import com.team1.todo.entity.User;
+import com.team1.todo.repository.TeamMemberRepository;
+import com.team1.todo.repository.TeamRepository;
+import com.team1.todo.repository.TodoRepository;
+import com.team1.todo.repository.TodoStatusRepository;
+import com.team1.todo.repository.UserRepository;
+
+/**
+ * Applies a list of todo create/update/delete operations in one transaction. Every
+ * referenced todo, team, user, status and membership is resolved up front with one
+ * set-based query per kind, and the writes are flushed together as JDBC batches.
+ * Operations that fail validation are reported per item and skipped.
+ */
+@Service
+public class TodoBatchService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    // Column sizes of todos (V1); checked per item so one bad row cannot fail the whole flush
+    private static final int MAX_TITLE_LENGTH = 128;
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
+    private static final String MOVE_OP = "move";
+
+    // Authorization is the SQL form of TodoService.isUserAuthorizedToUpdateTodo; unknown statuses drop out of the join
+    private static final String MOVE_STATUS_SQL = """
+        UPDATE todos t
+        SET status_id = v.status_id, updated_at = now(), version = t.version + 1
+        FROM (VALUES %s) AS v(id, status_id)
+        JOIN todo_status s ON s.id = v.status_id
+        WHERE t.id = v.id
+          AND (t.created_by = ?
+               OR EXISTS (SELECT 1 FROM team_members m WHERE m.team_id = t.team_id AND m.user_id = ?))
+        RETURNING t.id, t.team_id, t.created_by
+        """;
+
+    private final TodoRepository todoRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final TodoStatusRepository todoStatusRepository;
+    private final TeamVersionService teamVersionService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TodoBatchService(TodoRepository todoRepository, TeamMemberRepository teamMemberRepository,
+                            TeamRepository teamRepository, UserRepository userRepository,
+                            TodoStatusRepository todoStatusRepository, TeamVersionService teamVersionService,
+                            JdbcTemplate jdbcTemplate) {
+        this.todoRepository = todoRepository;
+        this.teamMemberRepository = teamMemberRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.todoStatusRepository = todoStatusRepository;
+        this.teamVersionService = teamVersionService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public List<TodoBatchResultDto> apply(List<TodoBatchOperationDto> operations, Long currentUserId) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No operations given");
+        }
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " operations per batch");
+        }
+
+        Set<Long> duplicateIds = duplicateTargets(operations);
+        Lookups lookups = resolve(operations, currentUserId);
+
+        List<TodoBatchResultDto> results = new ArrayList<>(operations.size());
+        List<Todo> toSave = new ArrayList<>();
+        List<Todo> toDelete = new ArrayList<>();
+        List<Long> previousTeamIds = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            TodoBatchOperationDto operation = operations.get(i);
+            String op = operation.getOp();
+            try {
+                if (duplicateIds.contains(operation.getId()) && !TodoBatchOperationDto.CREATE.equals(op)) {
+                    throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "Todo " + operation.getId() + " appears more than once in this batch");
+                }
+                if (TodoBatchOperationDto.CREATE.equals(op)) {
+                    Todo todo = buildNew(operation.getTodo(), lookups);
+                    toSave.add(todo);
+                    results.add(null);
+                } else if (TodoBatchOperationDto.UPDATE.equals(op)) {
+                    Todo todo = authorizedTodo(operation.getId(), lookups);
+                    previousTeamIds.add(todo.getTeam() != null ? todo.getTeam().getId() : null);
+                    applyUpdate(todo, operation.getTodo(), lookups);
+                    toSave.add(todo);
+                    results.add(null);
+                } else if (TodoBatchOperationDto.DELETE.equals(op)) {
+                    toDelete.add(authorizedTodo(operation.getId(), lookups));
+                    results.add(new TodoBatchResultDto(i, op, operation.getId(), HttpStatus.NO_CONTENT.value(), null));
+                } else {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown operation: " + op);
+                }
+            } catch (ResponseStatusException e) {
+                results.add(new TodoBatchResultDto(i, op, operation.getId(), e.getStatusCode().value(), e.getReason()));
+            }
+        }
+
+        // Ids come from the pooled sequence at persist time, so the inserts can still be batched on flush
+        List<Todo> saved = todoRepository.saveAll(toSave);
+        todoRepository.deleteAllInBatch(toDelete);
+
+        int savedIndex = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                String op = operations.get(i).getOp();
+                Todo todo = saved.get(savedIndex++);
+                HttpStatus status = TodoBatchOperationDto.CREATE.equals(op) ? HttpStatus.CREATED : HttpStatus.OK;
+                results.set(i, new TodoBatchResultDto(i, op, todo.getId(), status.value(), null));
+            }
+        }
+
+        Set<Long> touchedTeamIds = new HashSet<>(previousTeamIds);
+        Set<Long> touchedCreatorIds = new HashSet<>();
+        for (List<Todo> todos : List.of(saved, toDelete)) {
+            for (Todo todo : todos) {
+                touchedTeamIds.add(todo.getTeam() != null ? todo.getTeam().getId() : null);
+                touchedCreatorIds.add(todo.getCreatedBy() != null ? todo.getCreatedBy().getId() : null);
+            }
+        }
+        afterCommit(() -> {
+            touchedTeamIds.forEach(teamVersionService::bumpTeam);
+            touchedCreatorIds.forEach(teamVersionService::bumpCreator);
+        });
+        return results;
+    }
+
+    // Kanban moves: every status change in one UPDATE ... FROM (VALUES ...) statement
+    @Transactional
+    public List<TodoBatchResultDto> moveStatuses(List<TodoStatusMoveDto> moves, Long currentUserId) {
+        if (moves == null || moves.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No moves given");
+        }
+        if (moves.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " moves per batch");
+        }
+
+        // The last move of a todo wins, as it would with one request per drag
+        Map<Long, Long> targetStatus = new LinkedHashMap<>();
+        for (TodoStatusMoveDto move : moves) {
+            if (move.getId() == null || move.getStatusId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each move needs id and statusId");
+            }
+            targetStatus.remove(move.getId());
+            targetStatus.put(move.getId(), move.getStatusId());
+        }
+
+        String values = String.join(", ", Collections.nCopies(targetStatus.size(), "(?::bigint, ?::bigint)"));
+        List<Object> args = new ArrayList<>(targetStatus.size() * 2 + 2);
+        targetStatus.forEach((id, statusId) -> {
+            args.add(id);
+            args.add(statusId);
+        });
+        args.add(currentUserId);
+        args.add(currentUserId);
+
+        Set<Long> moved = new HashSet<>();
+        Set<Long> touchedTeamIds = new HashSet<>();
+        Set<Long> touchedCreatorIds = new HashSet<>();
+        jdbcTemplate.query(MOVE_STATUS_SQL.formatted(values), rs -> {
+            moved.add(rs.getLong("id"));
+            touchedTeamIds.add(rs.getLong("team_id"));
+            touchedCreatorIds.add(rs.getLong("created_by"));
+        }, args.toArray());
+        afterCommit(() -> {
+            touchedTeamIds.forEach(teamVersionService::bumpTeam);
+            touchedCreatorIds.forEach(teamVersionService::bumpCreator);
+        });
+
+        List<TodoBatchResultDto> results = new ArrayList<>(targetStatus.size());
+        int index = 0;
+        for (Long id : targetStatus.keySet()) {
+            results.add(moved.contains(id)
+                ? new TodoBatchResultDto(index, MOVE_OP, id, HttpStatus.OK.value(), null)
+                : new TodoBatchResultDto(index, MOVE_OP, id, HttpStatus.FORBIDDEN.value(),
+                    "Todo or status not found, or you are not authorized to update this todo"));
+            index++;
+        }
+        return results;
+    }
+
+    // Every operation on a repeated todo is refused: applying them in order would save a todo and then delete it
+    // in the same flush, and picking one of them would silently drop the others
+    private Set<Long> duplicateTargets(List<TodoBatchOperationDto> operations) {
+        Set<Long> seen = new HashSet<>();
+        Set<Long> duplicates = new HashSet<>();
+        for (TodoBatchOperationDto operation : operations) {
+            if (operation.getId() != null && !TodoBatchOperationDto.CREATE.equals(operation.getOp())
+                    && !seen.add(operation.getId())) {
+                duplicates.add(operation.getId());
+            }
+        }
+        return duplicates;
+    }
+
+    private Lookups resolve(List<TodoBatchOperationDto> operations, Long currentUserId) {
+        Set<Long> todoIds = new HashSet<>();
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> statusIds = new HashSet<>();
+        userIds.add(currentUserId);
+
+        for (TodoBatchOperationDto operation : operations) {
+            if (operation.getId() != null) {
+                todoIds.add(operation.getId());
+            }
+            TodoRequestDto dto = operation.getTodo();
+            if (dto != null) {
+                addIfPresent(teamIds, dto.getTeamId());
+                addIfPresent(userIds, dto.getAssignedToId());
+                addIfPresent(statusIds, dto.getStatusId());
+            }
+        }
+
+        Map<Long, Todo> todos = byId(todoRepository.findAllById(todoIds), Todo::getId);
+        // Current team and assignee too, since an update that keeps either is still validated against the other
+        todos.values().forEach(todo -> {
+            addIfPresent(teamIds, todo.getTeam() != null ? todo.getTeam().getId() : null);
+            addIfPresent(userIds, todo.getAssignedTo() != null ? todo.getAssignedTo().getId() : null);
+        });
+
+        Lookups lookups = new Lookups();
+        lookups.currentUserId = currentUserId;
+        lookups.todos = todos;
+        lookups.teams = byId(teamRepository.findAllById(teamIds), Team::getId);
+        lookups.users = byId(userRepository.findAllById(userIds), User::getId);
+        lookups.statuses = byId(todoStatusRepository.findAllById(statusIds), TodoStatus::getId);
+        lookups.memberships = teamIds.isEmpty() ? Set.of()
+                : new HashSet<>(teamMemberRepository.findMemberships(userIds, teamIds));
+        return lookups;
+    }
+
+    private Todo buildNew(TodoRequestDto dto, Lookups lookups) {
+        validateFields(dto);
+        if (dto.getTeamId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "teamId is required");
+        }
+        Team team = lookups.team(dto.getTeamId());
+        User assignee = dto.getAssignedToId() != null ? lookups.user(dto.getAssignedToId()) : null;
+        validateAssignment(assignee, team, lookups);
+
+        Todo todo = new Todo();
+        todo.setTitle(dto.getTitle());
+        todo.setDescription(dto.getDescription());
+        todo.setDueDate(dto.getDueDate());
+        todo.setCreatedBy(lookups.user(lookups.currentUserId));
+        todo.setTeam(team);
+        todo.setAssignedTo(assignee);
+        todo.setStatus(lookups.defaultStatus(todoStatusRepository));
+        return todo;
+    }
+
+    // Same field semantics as TodoService.updateFromDto. The todo is managed, so everything is resolved and
+    // validated before the first setter: a rejected item must leave it clean or the flush would still write it.
+    private void applyUpdate(Todo todo, TodoRequestDto dto, Lookups lookups) {
+        validateFields(dto);
+        Team team = dto.getTeamId() != null ? lookups.team(dto.getTeamId()) : todo.getTeam();
+        User assignee = dto.getAssignedToId() != null ? lookups.user(dto.getAssignedToId()) : todo.getAssignedTo();
+        TodoStatus status = dto.getStatusId() != null ? lookups.status(dto.getStatusId()) : todo.getStatus();
+        validateAssignment(assignee, team, lookups);
+
+        todo.setTitle(dto.getTitle());
+        todo.setDescription(dto.getDescription());
+        todo.setDueDate(dto.getDueDate());
+        todo.setTeam(team);
+        todo.setAssignedTo(assignee);
+        todo.setStatus(status);
+        todo.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void validateFields(TodoRequestDto dto) {
+        if (dto == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing todo fields");
+        }
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title is required");
+        }
+        if (dto.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (dto.getDescription() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "description is required");
+        }
+        if (dto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+    }
+
+    // Same rule as TodoService.isUserAuthorizedToUpdateTodo, answered from the prefetched memberships
+    private Todo authorizedTodo(Long id, Lookups lookups) {
+        Todo todo = lookups.todos.get(id);
+        if (todo == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo not found with id: " + id);
+        }
+        boolean isCreator = todo.getCreatedBy() != null && todo.getCreatedBy().getId().equals(lookups.currentUserId);
+        boolean isMember = todo.getTeam() != null && lookups.isMember(lookups.currentUserId, todo.getTeam().getId());
+        if (!isCreator && !isMember) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                "You are not authorized to modify this todo. Only the creator or team members can modify it.");
+        }
+        return todo;
+    }
+
+    private void validateAssignment(User assignee, Team team, Lookups lookups) {
+        if (assignee == null || team == null) {
+            return;
+        }
+        if (!lookups.isMember(assignee.getId(), team.getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "User " + assignee.getUsername() + " is not a member of team " + team.getName());
+        }
+    }
+
+    // Listing ETags must change only once the rows are visible; bumped earlier, a concurrent GET could tag
+    // the pre-commit rows with the new version and keep answering 304 for them
+    private static void afterCommit(Runnable bumps) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bumps.run();
+            }
+        });
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> idOf) {
+        return entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private static class Lookups {
+        private Long currentUserId;
+        private Map<Long, Todo> todos;
+        private Map<Long, Team> teams;
+        private Map<Long, User> users;
+        private Map<Long, TodoStatus> statuses;
+        private Set<TeamMembershipKey> memberships;
+        private TodoStatus defaultStatus;
+
+        Team team(Long id) {
+            Team team = teams.get(id);
+            if (team == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Team not found with id: " + id);
+            }
+            return team;
+        }
+
+        User user(Long id) {
+            User user = users.get(id);
+            if (user == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User not found with id: " + id);
+            }
+            return user;
+        }
+
+        TodoStatus status(Long id) {
+            TodoStatus status = statuses.get(id);
+            if (status == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status not found with id: " + id);
+            }
+            return status;
+        }
+
+        TodoStatus defaultStatus(TodoStatusRepository todoStatusRepository) {
+            if (defaultStatus == null) {
+                defaultStatus = todoStatusRepository.findByName("Open")
+                    .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "Default status not found"));
+            }
+            return defaultStatus;
+        }
+
+        boolean isMember(Long userId, Long teamId) {
+            return memberships.contains(new TeamMembershipKey(userId, teamId));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.team1.todo.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.team1.todo.dto.TodoDto;
+import com.team1.todo.dto.TodoFilterDto;
+
+@Service
+public class TodoExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final String CSV_HEADER = "id,title,description,dueDate,createdAt,updatedAt,"
+            + "createdById,createdByUsername,assignedToId,assignedToUsername,"
+            + "teamId,teamName,statusId,statusName\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TodoQueryService todoQueryService;
+    private final ObjectWriter todoWriter;
+
+    public TodoExportService(TodoQueryService todoQueryService, ObjectMapper objectMapper) {
+        this.todoQueryService = todoQueryService;
+        this.todoWriter = objectMapper.writerFor(TodoDto.class);
+    }
+
+    public void writeNdjson(TodoFilterDto filter, Long viewerId, OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        try {
+            todoQueryService.forEach(filter, viewerId, todo -> {
+                try {
+                    out.write(todoWriter.writeValueAsBytes(todo));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    public void writeCsv(TodoFilterDto filter, Long viewerId, OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        try {
+            todoQueryService.forEach(filter, viewerId, todo -> {
+                try {
+                    out.write(toCsvLine(todo).getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private String toCsvLine(TodoDto todo) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(todo.getId()).append(',');
+        appendCsvValue(line, todo.getTitle()).append(',');
+        appendCsvValue(line, todo.getDescription()).append(',');
+        appendCsvValue(line, todo.getDueDate()).append(',');
+        appendCsvValue(line, todo.getCreatedAt()).append(',');
+        appendCsvValue(line, todo.getUpdatedAt()).append(',');
+        appendCsvValue(line, todo.getCreatedBy() != null ? todo.getCreatedBy().getId() : null).append(',');
+        appendCsvValue(line, todo.getCreatedBy() != null ? todo.getCreatedBy().getUsername() : null).append(',');
+        appendCsvValue(line, todo.getAssignedTo() != null ? todo.getAssignedTo().getId() : null).append(',');
+        appendCsvValue(line, todo.getAssignedTo() != null ? todo.getAssignedTo().getUsername() : null).append(',');
+        appendCsvValue(line, todo.getTeam() != null ? todo.getTeam().getId() : null).append(',');
+        appendCsvValue(line, todo.getTeam() != null ? todo.getTeam().getName() : null).append(',');
+        appendCsvValue(line, todo.getStatus() != null ? todo.getStatus().getId() : null).append(',');
+        appendCsvValue(line, todo.getStatus() != null ? todo.getStatus().getName() : null);
+        return line.append('\n').toString();
+    }
+
+    private StringBuilder appendCsvValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        // User text opening with a formula trigger would be evaluated by spreadsheet apps; quote it as text
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,274 @@
+package com.team1.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team1.todo.dto.TodoDto;
+import com.team1.todo.dto.TodoFilterDto;
+import com.team1.todo.dto.TodoPageDto;
+import com.team1.todo.mapper.TodoMapper;
+
+/**
+ * Read side of the todo listing. Every page is a single SQL statement that joins in
+ * the status, team and users, filters in the WHERE clause and pages with a keyset on
+ * (updated_at, id) so deep pages cost the same as the first one.
+ */
+@Service
+public class TodoQueryService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    public static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String TODO_COLUMNS = """
+        SELECT t.id, t.title, t.description, t.due_date, t.created_at, t.updated_at, t.version,
+               s.id AS status_id, s.name AS status_name,
+               tm.id AS team_id, tm.name AS team_name,
+               cb.id AS created_by_id, cb.username AS created_by_username,
+               au.id AS assigned_to_id, au.username AS assigned_to_username
+        """;
+
+    private static final String TODO_JOINS = """
+        FROM todos t
+        JOIN todo_status s ON s.id = t.status_id
+        JOIN teams tm ON tm.id = t.team_id
+        JOIN users cb ON cb.id = t.created_by
+        LEFT JOIN users au ON au.id = t.assigned_to_id
+        """;
+
+    public static final String SELECT_COLUMNS = TODO_COLUMNS + TODO_JOINS;
+
+    // Ranked full-text match against the generated todos.search_vector column (GIN indexed)
+    private static final String SEARCH_SELECT = TODO_COLUMNS
+        + ", ts_rank(t.search_vector, q.query) AS rank\n"
+        + TODO_JOINS
+        + "CROSS JOIN websearch_to_tsquery('english', :q) AS q(query)\n"
+        + "WHERE t.search_vector @@ q.query\n";
+
+    // SQL form of TodoService.isUserAuthorizedToUpdateTodo: the creator or any member of the todo's team
+    private static final String VISIBLE_TO_VIEWER = """
+        AND (t.created_by = :viewerId
+             OR EXISTS (SELECT 1 FROM team_members m WHERE m.team_id = t.team_id AND m.user_id = :viewerId))
+        """;
+
+    private static final String PERMISSIONS_SELECT = """
+        SELECT t.id,
+               (t.created_by = :viewerId
+                OR EXISTS (SELECT 1 FROM team_members m WHERE m.team_id = t.team_id AND m.user_id = :viewerId))
+                   AS can_update
+        FROM todos t
+        WHERE t.id IN (:ids)
+        """;
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TodoQueryService(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        // The Postgres driver only streams with a cursor when a fetch size is set and autocommit is off
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public TodoPageDto findPage(TodoFilterDto filter, Long viewerId) {
+        int limit = resolveLimit(filter.getLimit());
+
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append("WHERE 1 = 1\n");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        appendFilters(filter, viewerId, sql, params);
+
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            Cursor cursor = Cursor.decode(filter.getCursor());
+            sql.append("AND (t.updated_at, t.id) < (:cursorUpdatedAt, :cursorId)\n");
+            params.addValue("cursorUpdatedAt", Timestamp.valueOf(cursor.updatedAt()));
+            params.addValue("cursorId", cursor.id());
+        }
+
+        // Fetch one extra row to find out whether another page exists
+        sql.append("ORDER BY t.updated_at DESC, t.id DESC\nLIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<TodoDto> rows = jdbcTemplate.query(sql.toString(), params, TodoMapper::fromRow);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            TodoDto last = rows.get(limit - 1);
+            nextCursor = new Cursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return new TodoPageDto(rows, nextCursor);
+    }
+
+    public TodoPageDto search(String query, TodoFilterDto filter, Long viewerId) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty");
+        }
+        int limit = resolveLimit(filter.getLimit());
+
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT);
+        MapSqlParameterSource params = new MapSqlParameterSource("q", query.trim());
+        appendFilters(filter, viewerId, sql, params);
+
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            SearchCursor cursor = SearchCursor.decode(filter.getCursor());
+            sql.append("AND (ts_rank(t.search_vector, q.query), t.id) < (:cursorRank, :cursorId)\n");
+            params.addValue("cursorRank", cursor.rank());
+            params.addValue("cursorId", cursor.id());
+        }
+
+        sql.append("ORDER BY rank DESC, t.id DESC\nLIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<Float> ranks = new ArrayList<>();
+        List<TodoDto> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            ranks.add(rs.getFloat("rank"));
+            return TodoMapper.fromRow(rs, rowNum);
+        });
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            nextCursor = new SearchCursor(ranks.get(limit - 1), rows.get(limit - 1).getId()).encode();
+        }
+        return new TodoPageDto(rows, nextCursor);
+    }
+
+    // Permission bits per existing todo id, for the whole set in one statement; unknown ids are left out
+    public Map<Long, Integer> findPermissions(Collection<Long> todoIds, Long viewerId) {
+        Map<Long, Integer> permissions = new LinkedHashMap<>();
+        if (todoIds.isEmpty()) {
+            return permissions;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", todoIds).addValue("viewerId", viewerId);
+        jdbcTemplate.query(PERMISSIONS_SELECT, params, (RowCallbackHandler) rs -> permissions.put(rs.getLong("id"),
+                rs.getBoolean("can_update") ? TodoDto.PERMISSION_EDIT | TodoDto.PERMISSION_DELETE : 0));
+        return permissions;
+    }
+
+    // Hands every matching row to the consumer as it is read, without buffering the result set
+    public void forEach(TodoFilterDto filter, Long viewerId, Consumer<TodoDto> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append("WHERE 1 = 1\n");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        appendFilters(filter, viewerId, sql, params);
+        sql.append("ORDER BY t.updated_at DESC, t.id DESC");
+
+        readOnlyTransaction.executeWithoutResult(status ->
+            streamingJdbcTemplate.query(sql.toString(), params,
+                (RowCallbackHandler) rs -> consumer.accept(TodoMapper.fromRow(rs, rs.getRow()))));
+    }
+
+    void appendFilters(TodoFilterDto filter, Long viewerId, StringBuilder sql, MapSqlParameterSource params) {
+        sql.append(VISIBLE_TO_VIEWER);
+        params.addValue("viewerId", viewerId);
+
+        if (filter.getTeamId() != null) {
+            sql.append("AND t.team_id = :teamId\n");
+            params.addValue("teamId", filter.getTeamId());
+        }
+        if (filter.getStatusId() != null) {
+            sql.append("AND t.status_id = :statusId\n");
+            params.addValue("statusId", filter.getStatusId());
+        }
+        if (filter.getAssignedToId() != null) {
+            sql.append("AND t.assigned_to_id = :assignedToId\n");
+            params.addValue("assignedToId", filter.getAssignedToId());
+        }
+        if (filter.getCreatedById() != null) {
+            sql.append("AND t.created_by = :createdById\n");
+            params.addValue("createdById", filter.getCreatedById());
+        }
+        if (filter.getDueFrom() != null) {
+            sql.append("AND t.due_date >= :dueFrom\n");
+            params.addValue("dueFrom", Timestamp.valueOf(filter.getDueFrom()));
+        }
+        if (filter.getDueTo() != null) {
+            sql.append("AND t.due_date < :dueTo\n");
+            params.addValue("dueTo", Timestamp.valueOf(filter.getDueTo()));
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static String encodeCursor(Object position, Long id) {
+        String raw = position + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {position, id} as raw strings
+    private static String[] decodeCursor(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+        return new String[] { raw.substring(0, separator), raw.substring(separator + 1) };
+    }
+
+    private record Cursor(LocalDateTime updatedAt, Long id) {
+
+        String encode() {
+            return encodeCursor(updatedAt, id);
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String[] parts = decodeCursor(token);
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+
+    private record SearchCursor(Float rank, Long id) {
+
+        String encode() {
+            return encodeCursor(rank, id);
+        }
+
+        static SearchCursor decode(String token) {
+            try {
+                String[] parts = decodeCursor(token);
+                return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
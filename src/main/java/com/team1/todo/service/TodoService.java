@@ -1,19 +1,23 @@
 package com.team1.todo.service;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.team1.todo.dto.TodoDto;
+import com.team1.todo.dto.TodoFilterDto;
+import com.team1.todo.dto.TodoPageDto;
 import com.team1.todo.dto.TodoRequestDto;
 import com.team1.todo.entity.Team;
 import com.team1.todo.entity.Todo;
 import com.team1.todo.entity.TodoStatus;
 import com.team1.todo.entity.User;
-import com.team1.todo.repository.TeamMemberRepository;
 import com.team1.todo.repository.TeamRepository;
 import com.team1.todo.repository.TodoRepository;
 import com.team1.todo.repository.TodoStatusRepository;
@@ -23,20 +27,25 @@ import com.team1.todo.repository.UserRepository;
 public class TodoService {
 
     private final TodoRepository todoRepository;
-    private final TeamMemberRepository teamMemberRepository;
+    private final TeamMembershipIndex teamMembershipIndex;
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final TodoStatusRepository todoStatusRepository;
+    private final TodoQueryService todoQueryService;
+    private final TeamVersionService teamVersionService;
 
     @Autowired
-    public TodoService(TodoRepository todoRepository, TeamMemberRepository teamMemberRepository,
+    public TodoService(TodoRepository todoRepository, TeamMembershipIndex teamMembershipIndex,
                       TeamRepository teamRepository, UserRepository userRepository,
-                      TodoStatusRepository todoStatusRepository) {
+                      TodoStatusRepository todoStatusRepository, TodoQueryService todoQueryService,
+                      TeamVersionService teamVersionService) {
         this.todoRepository = todoRepository;
-        this.teamMemberRepository = teamMemberRepository;
+        this.teamMembershipIndex = teamMembershipIndex;
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.todoStatusRepository = todoStatusRepository;
+        this.todoQueryService = todoQueryService;
+        this.teamVersionService = teamVersionService;
     }
 
     public Todo createFromDto(TodoRequestDto dto) {
@@ -76,13 +85,24 @@ public class TodoService {
         todo.setStatus(defaultStatus);
         
         validateTodoAssignment(todo);
-        return todoRepository.save(todo);
+        Todo saved = todoRepository.save(todo);
+        bumpVersions(saved, null);
+        return saved;
     }
 
     public Todo updateFromDto(Long id, TodoRequestDto dto) {
+        return updateFromDto(id, dto, null);
+    }
+
+    // expectedVersion comes from If-Match; null skips the precondition but the @Version check still applies
+    public Todo updateFromDto(Long id, TodoRequestDto dto, Long expectedVersion) {
         Todo existingTodo = todoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existingTodo.getVersion())) {
+            throw versionConflict(id);
+        }
+        Long previousTeamId = teamIdOf(existingTodo);
         
         // Update basic fields
         existingTodo.setTitle(dto.getTitle());
@@ -115,18 +135,34 @@ public class TodoService {
         existingTodo.setUpdatedAt(java.time.LocalDateTime.now());
         
         validateTodoAssignment(existingTodo);
-        return todoRepository.save(existingTodo);
+        Todo saved;
+        try {
+            saved = todoRepository.save(existingTodo);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Someone else committed between our read and this write
+            throw versionConflict(id);
+        }
+        bumpVersions(saved, previousTeamId);
+        return saved;
+    }
+
+    private ResponseStatusException versionConflict(Long id) {
+        return new ResponseStatusException(
+            HttpStatus.PRECONDITION_FAILED, "Todo " + id + " was modified by someone else; reload and retry");
     }
 
     public Todo saveTodo(Todo todo) {
         validateTodoAssignment(todo);
-        return todoRepository.save(todo);
+        Todo saved = todoRepository.save(todo);
+        bumpVersions(saved, null);
+        return saved;
     }
 
     public Todo updateTodo(Long id, Todo updatedTodo) {
         Todo existingTodo = todoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
+        Long previousTeamId = teamIdOf(existingTodo);
         
         // Update fields
         existingTodo.setTitle(updatedTodo.getTitle());
@@ -137,7 +173,22 @@ public class TodoService {
         existingTodo.setAssignedTo(updatedTodo.getAssignedTo());
         
         validateTodoAssignment(existingTodo);
-        return todoRepository.save(existingTodo);
+        Todo saved = todoRepository.save(existingTodo);
+        bumpVersions(saved, previousTeamId);
+        return saved;
+    }
+
+    // Invalidates cached listings of the todo's team (old and new when it moved) and its creator
+    public void bumpVersions(Todo todo, Long previousTeamId) {
+        teamVersionService.bumpTeam(previousTeamId);
+        teamVersionService.bumpTeam(teamIdOf(todo));
+        if (todo.getCreatedBy() != null) {
+            teamVersionService.bumpCreator(todo.getCreatedBy().getId());
+        }
+    }
+
+    private Long teamIdOf(Todo todo) {
+        return todo.getTeam() != null ? todo.getTeam().getId() : null;
     }
 
     private void validateTodoAssignment(Todo todo) {
@@ -150,7 +201,7 @@ public class TodoService {
         }
         
         // Check if the assigned user is a member of the team
-        boolean isMember = teamMemberRepository.findByUserAndTeam(assignedUser, team).isPresent();
+        boolean isMember = teamMembershipIndex.isMember(assignedUser.getId(), team.getId());
         
         if (!isMember) {
             throw new ResponseStatusException(
@@ -161,7 +212,7 @@ public class TodoService {
     }
 
     public boolean isUserTeamMember(Long userId, Long teamId) {
-        return teamMemberRepository.findByTeamIdAndUserId(teamId, userId).isPresent();
+        return teamMembershipIndex.isMember(userId, teamId);
     }
 
     public boolean isUserAuthorizedToUpdateTodo(Todo todo, Long userId) {
@@ -180,8 +231,34 @@ public class TodoService {
         return false;
     }
 
-    public List<Todo> findAll() {
-        return todoRepository.findAll();
+    public String listingEtag(Long viewerId, String query) {
+        return teamVersionService.todoListEtag(teamMembershipIndex.teamIdsOf(viewerId), viewerId, query);
+    }
+
+    // Only todos the viewer could update are listed, see isUserAuthorizedToUpdateTodo
+    public TodoPageDto findPage(TodoFilterDto filter, Long viewerId) {
+        return withPermissions(todoQueryService.findPage(filter, viewerId), viewerId);
+    }
+
+    public TodoPageDto search(String query, TodoFilterDto filter, Long viewerId) {
+        return withPermissions(todoQueryService.search(query, filter, viewerId), viewerId);
+    }
+
+    // Same rule as isUserAuthorizedToUpdateTodo, from the DTO's ids and the membership index
+    public TodoDto withPermissions(TodoDto todo, Long viewerId) {
+        boolean isCreator = todo.getCreatedBy() != null && todo.getCreatedBy().getId().equals(viewerId);
+        boolean isMember = todo.getTeam() != null && teamMembershipIndex.isMember(viewerId, todo.getTeam().getId());
+        todo.setPermissions(isCreator || isMember ? TodoDto.PERMISSION_EDIT | TodoDto.PERMISSION_DELETE : 0);
+        return todo;
+    }
+
+    private TodoPageDto withPermissions(TodoPageDto page, Long viewerId) {
+        page.getItems().forEach(todo -> withPermissions(todo, viewerId));
+        return page;
+    }
+
+    public Map<Long, Integer> findPermissions(Collection<Long> todoIds, Long viewerId) {
+        return todoQueryService.findPermissions(todoIds, viewerId);
     }
 
     public Optional<Todo> findById(Long id) {
@@ -189,6 +266,9 @@ public class TodoService {
     }
 
     public void deleteById(Long id) {
-        todoRepository.deleteById(id);
+        todoRepository.findById(id).ifPresent(todo -> {
+            todoRepository.delete(todo);
+            bumpVersions(todo, null);
+        });
     }
 } 
\ No newline at end of file
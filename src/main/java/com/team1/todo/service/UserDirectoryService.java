@@ -0,0 +1,150 @@
+package com.team1.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team1.todo.dto.UserDirectoryEntryDto;
+import com.team1.todo.dto.UserDirectoryPageDto;
+import com.team1.todo.dto.UserTeamRoleView;
+
+/**
+ * Users for pickers and the admin list, one page per statement. Pages follow username in byte order
+ * (COLLATE "C") with a keyset on it, so the same btree from V14 serves the ordering, the cursor and
+ * prefix searches; substring searches use the trigram index from V14. Team memberships are only loaded
+ * when asked for, with one extra query for the whole page.
+ */
+@Service
+public class UserDirectoryService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    public static final String MATCH_PREFIX = "prefix";
+    public static final String MATCH_CONTAINS = "contains";
+
+    private static final String SELECT_SQL = """
+        SELECT u.id, u.username, u.created_at,
+               ARRAY(SELECT sr.name FROM user_system_roles usr
+                     JOIN system_roles sr ON sr.id = usr.role_id
+                     WHERE usr.user_id = u.id ORDER BY sr.name) AS system_roles
+        FROM users u
+        WHERE TRUE
+        """;
+
+    private static final String MEMBERSHIPS_SQL = """
+        SELECT tm.user_id, t.id AS team_id, t.name AS team_name, r.id AS role_id, r.name AS role_name
+        FROM team_members tm
+        JOIN teams t ON t.id = tm.team_id
+        JOIN team_roles r ON r.id = tm.team_role_id
+        WHERE tm.user_id IN (:userIds)
+        ORDER BY tm.user_id, t.name
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserDirectoryService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public UserDirectoryPageDto findPage(String query, String match, String cursor, Integer limit,
+                                         boolean includeMemberships) {
+        int pageSize = resolveLimit(limit);
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (!term.isEmpty()) {
+            // Usernames are stored lower-cased, see AuthService.registerUser
+            String mode = match == null ? MATCH_PREFIX : match;
+            if (MATCH_PREFIX.equals(mode)) {
+                // Prefix LIKE is only turned into a btree range under the C collation, so it matches idx_users_username_c
+                sql.append("AND u.username COLLATE \"C\" LIKE :pattern\n");
+                params.addValue("pattern", escapeLike(term) + "%");
+            } else if (MATCH_CONTAINS.equals(mode)) {
+                // Deliberately without COLLATE: trigram matching ignores collation, and the trigram index is on
+                // the bare column, so a collated expression would not match it. Ordering below stays byte order.
+                sql.append("AND u.username LIKE :pattern\n");
+                params.addValue("pattern", "%" + escapeLike(term) + "%");
+            } else {
+                throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "match must be " + MATCH_PREFIX + " or " + MATCH_CONTAINS);
+            }
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            sql.append("AND u.username COLLATE \"C\" > :after\n");
+            params.addValue("after", decodeCursor(cursor));
+        }
+        sql.append("ORDER BY u.username COLLATE \"C\"\nLIMIT :limit");
+        params.addValue("limit", pageSize + 1);
+
+        List<UserDirectoryEntryDto> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) ->
+                new UserDirectoryEntryDto(
+                        rs.getLong("id"),
+                        rs.getString("username"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        SqlArrays.strings(rs.getArray("system_roles")),
+                        null));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = encodeCursor(rows.get(pageSize - 1).username());
+        }
+        if (includeMemberships && !rows.isEmpty()) {
+            rows = withMemberships(rows);
+        }
+        return new UserDirectoryPageDto(rows, nextCursor);
+    }
+
+    private List<UserDirectoryEntryDto> withMemberships(List<UserDirectoryEntryDto> rows) {
+        Map<Long, List<UserTeamRoleView>> byUser = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource(
+            "userIds", rows.stream().map(UserDirectoryEntryDto::id).toList());
+        jdbcTemplate.query(MEMBERSHIPS_SQL, params, (RowCallbackHandler) rs ->
+                byUser.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>()).add(new UserTeamRoleView(
+                        rs.getLong("team_id"), rs.getString("team_name"),
+                        rs.getLong("role_id"), rs.getString("role_name"))));
+        return rows.stream()
+                .map(row -> row.withTeamMemberships(byUser.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String encodeCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.team1.todo.service;
 import java.util.Optional;
 
 import com.team1.todo.security.JwtUtil;
+import com.team1.todo.security.VerifiedToken;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -62,10 +63,13 @@ public class UserService {
         try {
             HttpServletRequest request = getCurrentRequest();
             if (request != null) {
+                // Set by JwtAuthFilter, so the token is not parsed a second time
+                if (request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken token) {
+                    return token.userId();
+                }
                 String authHeader = request.getHeader("Authorization");
                 if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    String jwt = authHeader.substring(7);
-                    return jwtUtil.extractUserId(jwt);
+                    return jwtUtil.verify(authHeader.substring(7)).map(VerifiedToken::userId).orElse(null);
                 }
             }
         } catch (Exception e) {
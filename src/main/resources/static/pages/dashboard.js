@@ -137,8 +137,8 @@ class DashboardPage {
     this.statuses = await this.loadStatues()
 
     
-    await this.loadStats()
     await this.loadTodos()
+    await this.loadStats()
 
     
     this.setupEventListeners()
@@ -236,8 +236,10 @@ class DashboardPage {
         `
 
     try {
-      const response = await ApiService.get("/full-todos")
-        const stats = this.calculateStats(response)
+      if (!this.allTodos) {
+        this.allTodos = await ApiService.getAllTodoPages()
+      }
+        const stats = this.calculateStats(this.allTodos)
 
         document.getElementById("total-tasks").textContent = stats.total
         document.getElementById("open-tasks").textContent = stats.open
@@ -262,7 +264,7 @@ class DashboardPage {
     container.innerHTML = '<div class="loading-message">Loading tasks...</div>'
 
     try {
-      const response = await ApiService.get("/full-todos")
+      const response = await ApiService.getAllTodoPages()
         this.allTodos = response
         this.renderTodos(response)
     } catch (error) {
@@ -496,7 +498,8 @@ class DashboardPage {
     const searchInput = document.getElementById("search-input")
     if (searchInput) {
       searchInput.addEventListener("input", (e) => {
-        this.filterTodos()
+        clearTimeout(this.searchDebounce)
+        this.searchDebounce = setTimeout(() => this.filterTodos(), 250)
       })
     }
 
@@ -512,7 +515,7 @@ class DashboardPage {
     }
   }
 
-  static filterTodos() {
+  static async filterTodos() {
     if (!this.allTodos) {
       return;
     }
@@ -524,10 +527,20 @@ class DashboardPage {
     
     const selectedTeam = teamSelector ? teamSelector.value : '';
     const selectedStatus = statusFilter ? statusFilter.value : '';
-    const searchTerm = searchInput && searchInput.value ? searchInput.value.toLowerCase() : '';
+    const searchTerm = searchInput && searchInput.value ? searchInput.value.trim() : '';
   
     let filtered = this.allTodos;
 
+    if (searchTerm) {
+      try {
+        const page = await ApiService.get("/full-todos/search", { q: searchTerm })
+        filtered = page.items
+      } catch (error) {
+        ToastService.show("Search failed", "error")
+        return
+      }
+    }
+
     if (selectedTeam) {
       filtered = filtered.filter((todo) => {
         const result = todo.team && todo.team.id && todo.team.id.toString() === selectedTeam;
@@ -542,38 +555,36 @@ class DashboardPage {
       });
     }
 
-    if (searchTerm) {
-      filtered = filtered.filter((todo) => {
-        const titleMatch = todo.title && todo.title.toLowerCase().includes(searchTerm);
-        const descMatch = todo.description && todo.description.toLowerCase().includes(searchTerm);
-        return titleMatch || descMatch;
-      });
-    }
-
     this.renderTodos(filtered)
   }
 
   static async updateTodoStatus(todoId, newStatus) {
-    try {
-      const response = await ApiService.patch(`/todos/${todoId}`, {
-        status: 'api/todoStatuses/' + newStatus.id,
-      })
-        
-        const todoIndex = this.allTodos.findIndex((t) => t.id === todoId)
-        if (todoIndex !== -1) {
-          this.allTodos[todoIndex].status.name = newStatus.name
-        }
+    const todo = this.allTodos.find((t) => t.id === todoId)
+    if (todo) {
+      todo.status = { ...todo.status, id: newStatus.id, name: newStatus.name }
+    }
+    this.renderTodos(this.allTodos)
 
-        ToastService.show("Task status updated", "success")
-        await this.loadStats()
+    DragDropManager.onMovesFlushed = (results, error) => this.handleMovesFlushed(results, error)
+    DragDropManager.queueStatusChange(todoId, newStatus.id)
+  }
 
-        
-        this.renderTodos(this.allTodos)
-    } catch (error) {
-      ToastService.show("Failed to update task status", "error")
-      
-      this.renderTodos(this.allTodos)
+  static async handleMovesFlushed(results, error) {
+    const failed = error ? null : results.filter((result) => result.status !== 200)
+
+    if (error || failed.length > 0) {
+      ToastService.show(
+        error ? "Failed to update task status" : failed[0].message || "Failed to update task status",
+        "error",
+      )
+      // Reload so the board reflects what was actually saved
+      await this.loadTodos()
+      await this.loadStats()
+      return
     }
+
+    ToastService.show(results.length > 1 ? `${results.length} tasks updated` : "Task status updated", "success")
+    await this.loadStats()
   }
 
   static async handleTodoAction(action, todoId) {
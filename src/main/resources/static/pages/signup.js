@@ -133,7 +133,7 @@ class SignupPage {
         const payload = {
           username: username,
           qrCodeUrl: result.qrCodeUrl,
-          qrCodeImage: result.qrCodeImage,
+          qrCodeImageUrl: result.qrCodeImageUrl,
           totpSecret: result.totpSecret
         }
         ToastService.show("Account created successfully!", "success")
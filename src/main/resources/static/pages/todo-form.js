@@ -128,10 +128,10 @@ class TodoFormPage {
     app.appendChild(layout);
     
     
-    this.setupFormHandlers(form, todoId);
+    this.setupFormHandlers(form, todoId, todo);
   }
   
-  static async setupFormHandlers(form, todoId) {
+  static async setupFormHandlers(form, todoId, todo = null) {
     const isEdit = !!todoId;
     
     
@@ -165,7 +165,9 @@ class TodoFormPage {
         let response;
         
         if (isEdit) {
-          response = await ApiService.put(`/full-todos/${todoId}`, todoData);
+          // Version from when the form was loaded; the server answers 412 if the task changed since
+          const headers = todo?.version != null ? { "If-Match": `"${todo.version}"` } : {};
+          response = await ApiService.put(`/full-todos/${todoId}`, todoData, { headers });
         } else {
           response = await ApiService.post("/full-todos", todoData);
         }
@@ -173,6 +175,10 @@ class TodoFormPage {
         ToastService.show(`Task ${isEdit ? "updated" : "created"} successfully`, "success");
         Router.navigate("/dashboard");
       } catch (error) {
+        if (error?.status === 412) {
+          ToastService.show("This task was changed by someone else. Reload it to see the latest version.", "error");
+          return;
+        }
         ToastService.show(`An error occurred while ${isEdit ? "updating" : "creating"} the task`, "error");
       } finally {
         submitBtn.removeAttribute("loading");
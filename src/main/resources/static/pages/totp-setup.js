@@ -7,7 +7,7 @@ class TotpSetupPage {
   static qrCodeSvg = null;
   static username = null;
   static qrCodeUrl = null;
-  static qrCodeImage = null;
+  static qrCodeImageUrl = null;
   static totpSecret = null
 
   static render(payload) {
@@ -16,7 +16,7 @@ class TotpSetupPage {
     if (payload) {
       TotpSetupPage.username = payload.username;
       TotpSetupPage.qrCodeUrl = payload.qrCodeUrl;
-      TotpSetupPage.qrCodeImage = payload.qrCodeImage;
+      TotpSetupPage.qrCodeImageUrl = payload.qrCodeImageUrl;
       TotpSetupPage.totpSecret = payload.totpSecret;
     }
 
@@ -187,7 +187,7 @@ class TotpSetupPage {
     if (generateQrBtn) {
       generateQrBtn.onclick = function() {
         
-        if (TotpSetupPage.qrCodeImage || TotpSetupPage.qrCodeUrl) {
+        if (TotpSetupPage.qrCodeImageUrl || TotpSetupPage.qrCodeUrl) {
           TotpSetupPage.displayExistingQRCode();
         } else {
           ToastService.show("QR code not available", "error");
@@ -256,11 +256,11 @@ class TotpSetupPage {
     const secretKeyElement = document.getElementById('secret-key');
     
     if (qrCodeElement) {
-      if (TotpSetupPage.qrCodeImage) {
+      if (TotpSetupPage.qrCodeImageUrl) {
         
         qrCodeElement.innerHTML = `<img id="qr-code-image" src="" alt="QR Code" style="width: 180px; height: 180px;">`;
         const qrCodeImage = document.getElementById('qr-code-image');
-        qrCodeImage.src = `data:image/png;base64,${TotpSetupPage.qrCodeImage}`;
+        qrCodeImage.src = TotpSetupPage.qrCodeImageUrl;
       } else if (TotpSetupPage.qrCodeUrl) {
         ToastService.show("QR code not available", "error");
       }
@@ -5,6 +5,9 @@ import PermissionService from "../utils/permissions.js"
 import Router from "../utils/router.js"
 import SecurityUtils from "../utils/security.js"
 
+const PAGE_SIZE = 50
+const SEARCH_DEBOUNCE_MS = 250
+
 export default class UserManagementPage {
   static async render() {
     const currentUser = AuthService.getCurrentUser()
@@ -74,24 +77,49 @@ export default class UserManagementPage {
 
     const searchInput = document.getElementById("search-input")
 
+    this.searchTerm = ""
     searchInput.addEventListener("input", (e) => {
-      this.filterUsers(e.target.value)
+      clearTimeout(this.searchTimer)
+      this.searchTimer = setTimeout(() => {
+        this.searchTerm = e.target.value.trim()
+        this.loadUsers()
+      }, SEARCH_DEBOUNCE_MS)
     })
 
     
     await this.loadUsers()
   }
 
-  static async loadUsers() {
+  // Searches and pages on the server; append=true fetches the page after the ones already shown
+  static async loadUsers(append = false) {
     const container = document.getElementById("users-container")
-    container.innerHTML =
-      '<div style="text-align: center; padding: 2rem; color: var(--text-secondary);">Loading users...</div>'
+    if (!append) {
+      container.innerHTML =
+        '<div style="text-align: center; padding: 2rem; color: var(--text-secondary);">Loading users...</div>'
+    }
+
+    const params = { match: "contains", limit: PAGE_SIZE }
+    if (this.searchTerm) params.q = this.searchTerm
+    if (append && this.nextCursor) params.cursor = this.nextCursor
+
+    // Responses to superseded searches are dropped
+    const requestId = (this.requestId || 0) + 1
+    this.requestId = requestId
 
     try {
-      const response = await ApiService.get("/full-users")
-        this.allUsers = response
-        this.renderUsers(this.allUsers)
+      const page = await ApiService.get("/full-users/directory", params)
+      if (requestId !== this.requestId) return
+      this.allUsers = append ? [...this.allUsers, ...page.items] : page.items
+      this.nextCursor = page.nextCursor
+      this.renderUsers(this.allUsers)
     } catch (error) {
+      if (requestId !== this.requestId) return
+      if (append) {
+        // Keep the rows already shown and re-enable "Load more"
+        this.renderUsers(this.allUsers)
+        ToastService.show("Failed to load more users", "error")
+        return
+      }
       container.innerHTML =
         '<div style="text-align: center; padding: 2rem; color: var(--error-color);">Failed to load users</div>'
       ToastService.show("Failed to load users", "error")
@@ -161,6 +189,18 @@ export default class UserManagementPage {
 
     container.appendChild(table)
 
+    if (this.nextCursor) {
+      const loadMore = document.createElement("div")
+      loadMore.className = "flex justify-center mt-4"
+      loadMore.innerHTML = `<button type="button" class="btn btn-secondary" id="load-more-btn">Load more</button>`
+      container.appendChild(loadMore)
+      loadMore.querySelector("#load-more-btn").addEventListener("click", (e) => {
+        e.target.disabled = true
+        e.target.textContent = "Loading..."
+        this.loadUsers(true)
+      })
+    }
+
     
     container.querySelectorAll("button[data-action]").forEach((btn) => {
       btn.addEventListener("click", (e) => {
@@ -171,13 +211,6 @@ export default class UserManagementPage {
     })
   }
 
-  static filterUsers(searchTerm) {
-    if (!this.allUsers) return
-
-    const filtered = this.allUsers.filter((user) => user.username.toLowerCase().includes(searchTerm.toLowerCase()))
-    this.renderUsers(filtered)
-  }
-
   static async handleUserAction(action, userId) {
     switch (action) {
       case "edit":
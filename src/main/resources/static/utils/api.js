@@ -626,16 +626,27 @@ export default class ApiService {
   }
 
   
-  static async get(endpoint) {
-    return this.apiRequest("GET", endpoint)
+  static async get(endpoint, queryParams = {}) {
+    return this.apiRequest("GET", endpoint, null, {}, queryParams)
+  }
+
+  static async getAllTodoPages(filters = {}) {
+    const todos = []
+    let cursor = null
+    do {
+      const page = await this.get("/full-todos", { ...filters, ...(cursor && { cursor }) })
+      todos.push(...page.items)
+      cursor = page.nextCursor
+    } while (cursor)
+    return todos
   }
 
   static async post(endpoint, data) {
     return this.apiRequest("POST", endpoint, data)
   }
 
-  static async put(endpoint, data) {
-    return this.apiRequest("PUT", endpoint, data)
+  static async put(endpoint, data, options = {}) {
+    return this.apiRequest("PUT", endpoint, data, options)
   }
 
     static async patch(endpoint, data) {
@@ -22,6 +22,9 @@ class AuthService {
     this.startSessionMonitoring()
 
     
+    this.watchOtherTabs()
+
+    
     this.setupCSRFProtection()
   }
 
@@ -108,7 +111,11 @@ class AuthService {
   }
 
   logout() {
-    
+    // Best effort: revoke both tokens server-side; the local session is cleared regardless
+    if (this.authToken || this.refreshToken) {
+      ApiService.post("/auth/logout", { refreshToken: this.refreshToken }).catch(() => {})
+    }
+
     if (this.tokenRefreshTimer) {
       clearTimeout(this.tokenRefreshTimer)
     }
@@ -149,15 +156,35 @@ class AuthService {
     return this.authToken
   }
 
+  // The refresh token sits in localStorage and is shared by every tab; adopt rotations made elsewhere
+  watchOtherTabs() {
+    window.addEventListener("storage", (event) => {
+      if (event.key === StorageService.prefix + "refresh_token" && event.newValue) {
+        this.refreshToken = StorageService.getSecure("refresh_token")
+      }
+    })
+  }
+
+  // Tabs refresh one at a time, so two of them never present the same token and trip reuse detection
   async refreshAuthToken() {
+    if (navigator.locks) {
+      return navigator.locks.request("team_todo_token_refresh", () => this.rotateRefreshToken())
+    }
+    return this.rotateRefreshToken()
+  }
+
+  async rotateRefreshToken(retried = false) {
+    // Another tab may have rotated the token while this one waited
+    this.refreshToken = StorageService.getSecure("refresh_token")
     if (!this.refreshToken) {
       this.logout()
       return false
     }
 
+    const presented = this.refreshToken
     try {
-      const response = await ApiService.mockPost("/auth/refresh", {
-        refreshToken: this.refreshToken,
+      const response = await ApiService.post("/auth/refresh", {
+        refreshToken: presented,
       })
 
       if (response.success) {
@@ -176,14 +203,27 @@ class AuthService {
         return false
       }
     } catch (error) {
+      // Network trouble: keep the session and try again shortly; a rejected refresh token ends it
+      if (error?.status === undefined || error.status >= 500) {
+        this.scheduleTokenRefresh(30 * 1000)
+        return false
+      }
+      // Without Web Locks another tab can rotate the token mid-flight; the server spares the family for
+      // a few seconds, so retry once with the successor that tab stored
+      const latest = StorageService.getSecure("refresh_token")
+      if (!retried && latest && latest !== presented) {
+        return this.rotateRefreshToken(true)
+      }
       this.logout()
+      window.dispatchEvent(new CustomEvent("auth:session-expired"))
       return false
     }
   }
 
-  scheduleTokenRefresh() {
-    
-    const refreshTime = 55 * 60 * 1000 
+  // Access tokens are short-lived; renew a minute before the current one expires
+  scheduleTokenRefresh(delay = null) {
+    const expiresAt = this.getTokenExpiry(this.authToken)
+    const refreshTime = delay ?? (expiresAt ? Math.max(0, expiresAt - Date.now() - 60 * 1000) : 0)
 
     if (this.tokenRefreshTimer) {
       clearTimeout(this.tokenRefreshTimer)
@@ -194,6 +234,16 @@ class AuthService {
     }, refreshTime)
   }
 
+  getTokenExpiry(token) {
+    try {
+      const payload = token.split(".")[1].replace(/-/g, "+").replace(/_/g, "/")
+      const { exp } = JSON.parse(atob(payload))
+      return exp ? exp * 1000 : null
+    } catch (error) {
+      return null
+    }
+  }
+
   startSessionMonitoring() {
     
     this.sessionCheckInterval = setInterval(
@@ -1,4 +1,42 @@
+import ApiService from "./api.js"
+
 class DragDropManager {
+  // Status moves are queued and sent together; the queue outlives board re-renders
+  static pendingMoves = new Map()
+  static flushTimer = null
+  static flushDelay = 400
+  static maxBatchSize = 500
+  static onMovesFlushed = null
+
+  static queueStatusChange(todoId, statusId) {
+    this.pendingMoves.delete(todoId)
+    this.pendingMoves.set(todoId, statusId)
+
+    if (this.pendingMoves.size >= this.maxBatchSize) {
+      this.flushMoves()
+      return
+    }
+
+    clearTimeout(this.flushTimer)
+    this.flushTimer = setTimeout(() => this.flushMoves(), this.flushDelay)
+  }
+
+  static async flushMoves() {
+    clearTimeout(this.flushTimer)
+    this.flushTimer = null
+    if (this.pendingMoves.size === 0) return
+
+    const moves = Array.from(this.pendingMoves, ([id, statusId]) => ({ id, statusId }))
+    this.pendingMoves.clear()
+
+    try {
+      const results = await ApiService.patch("/full-todos/status", moves)
+      this.onMovesFlushed?.(results, null)
+    } catch (error) {
+      this.onMovesFlushed?.(null, error)
+    }
+  }
+
   constructor() {
     this.selectedTodo = null
     this.keyboardMode = false
@@ -2,6 +2,10 @@ import ApiService from "./api.js"
 import authService from "./auth.js"
 
 export default class PermissionService {
+  // Bits of TodoDto.permissions
+  static TODO_EDIT = 1
+  static TODO_DELETE = 2
+
   static hasSystemRole(user, role) {
     return user && user.systemRoles && user.systemRoles.includes(role)
   }
@@ -55,24 +59,25 @@ export default class PermissionService {
       
       if (todo.createdBy && todo.createdBy.id === currentUser.id) return true
 
-      
+      // List and single-todo responses carry the bits for the current user already
+      if (todo.permissions != null && currentUser.id === authService.getCurrentUser()?.id) {
+        return (todo.permissions & this.TODO_EDIT) !== 0
+      }
+
       if (todo.team && todo.team.id) {
-        try {
-          
-          const response = await ApiService.get(`/api/full-todos/can-edit/${todo.id}/user/${currentUser.id}`)
-          return response === true
-        } catch (error) {
-          
-          
-          
-          const teamId = todo.team.id
-          const role = await this.getTeamRole(teamId, currentUser.id)
-          return role !== null 
-        }
+        const permissions = await this.loadTodoPermissions([todo.id])
+        return ((permissions[todo.id] ?? 0) & this.TODO_EDIT) !== 0
       }
     } catch (error) {
     }
 
     return false
   }
+
+  // One request for a whole page of todos; resolves to { todoId: bits } for the current user
+  static async loadTodoPermissions(todoIds) {
+    const ids = [...new Set(todoIds)].filter((id) => id != null)
+    if (ids.length === 0) return {}
+    return ApiService.post("/full-todos/permissions", ids)
+  }
 }
@@ -0,0 +1,100 @@
+package com.team1.todo;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.TeamMember;
+import com.team1.todo.entity.User;
+import com.team1.todo.repository.TeamMemberRepository;
+import com.team1.todo.repository.TeamRepository;
+import com.team1.todo.repository.TeamRoleRepository;
+import com.team1.todo.repository.UserRepository;
+import com.team1.todo.security.AuthenticatedUser;
+import com.team1.todo.security.JwtUtil;
+import com.team1.todo.service.TeamMembershipIndex;
+import com.team1.todo.service.UserService;
+
+/**
+ * The whole application on an in-memory H2 database in PostgreSQL mode, driven through MockMvc.
+ * The schema comes from the entities plus h2-schema.sql; Postgres-only features (full-text search,
+ * audit triggers) are not available. Every subclass shares one context, so tests create their own
+ * uniquely named users and teams instead of relying on a clean database.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:todo;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.defer-datasource-initialization=true",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=classpath:h2-schema.sql"
+})
+@AutoConfigureMockMvc
+public abstract class WebIntegrationTestSupport {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JwtUtil jwtUtil;
+
+    @Autowired
+    protected UserService userService;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected TeamRepository teamRepository;
+
+    @Autowired
+    protected TeamRoleRepository teamRoleRepository;
+
+    @Autowired
+    protected TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    protected TeamMembershipIndex teamMembershipIndex;
+
+    protected static String uniqueName(String prefix) {
+        return prefix + names.incrementAndGet();
+    }
+
+    protected User createUser(String prefix) {
+        User user = new User();
+        user.setUsername(uniqueName(prefix));
+        user.setPasswordHash("hash");
+        user.setPasswordSalt("salt");
+        user.setTwoFaSecret("secret");
+        return userService.createUserWithDefaultSystemRole(user);
+    }
+
+    protected Team createTeam(String prefix) {
+        Team team = new Team();
+        team.setName(uniqueName(prefix));
+        return teamRepository.save(team);
+    }
+
+    // Saved and added to the in-memory index, as the membership endpoints do
+    protected void addMember(Team team, User user, String roleName) {
+        TeamMember member = new TeamMember();
+        member.setTeam(team);
+        member.setUser(user);
+        member.setTeamRole(teamRoleRepository.findByName(roleName).orElseThrow());
+        teamMemberRepository.save(member);
+        teamMembershipIndex.add(user.getId(), team.getId(), member.getTeamRole().getId());
+    }
+
+    protected String bearer(User user, String... systemRoles) {
+        List<String> roles = systemRoles.length == 0 ? List.of("todo_user") : List.of(systemRoles);
+        return "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(user.getId(), user.getUsername(), roles), user.getId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.team1.todo.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.http.HttpHeaders;
+
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.User;
+
+class TeamMembershipEventHandlerTests extends WebIntegrationTestSupport {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void renamingAMemberThroughRestInvalidatesTheRosterEtag() throws Exception {
+        User member = createUser("member");
+        Team team = createTeam("roster");
+        addMember(team, member, "team_member");
+        String auth = bearer(member);
+
+        String etag = mockMvc.perform(get("/api/teaminfo/all").header(HttpHeaders.AUTHORIZATION, auth))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/teaminfo/all").header(HttpHeaders.AUTHORIZATION, auth)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // The event Spring Data REST publishes after PATCH /api/users/{id}
+        String renamed = uniqueName("renamed");
+        member.setUsername(renamed);
+        userRepository.save(member);
+        eventPublisher.publishEvent(new AfterSaveEvent(member));
+
+        mockMvc.perform(get("/api/teaminfo/all").header(HttpHeaders.AUTHORIZATION, auth)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$..username", Matchers.hasItem(renamed)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.team1.todo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.entity.User;
+
+// A burst of logins, each padded to a full second, must not hold the threads that serve other requests.
+// The caller threads here stand in for the container's request threads.
+class AuthControllerLoginLoadTests extends WebIntegrationTestSupport {
+
+    private static final int REQUEST_THREADS = 8;
+    private static final int CONCURRENT_LOGINS = 16;
+    private static final long LOGIN_DELAY_MILLIS = 1000;
+    private static final long MAX_LISTING_MILLIS = 500;
+
+    @Test
+    void listingStaysFastWhileLoginsArePadded() throws Exception {
+        User viewer = createUser("viewer");
+        String token = bearer(viewer);
+        // Warms up the listing so the first measured call does not pay for lazy initialization
+        mockMvc.perform(get("/api/full-todos").header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isOk());
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            long startNanos = System.nanoTime();
+            List<Future<MvcResult>> logins = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+                String address = "10.14.0." + (i + 1);
+                logins.add(requestThreads.submit(() -> mockMvc.perform(post("/api/auth/login")
+                                .with(request -> {
+                                    request.setRemoteAddr(address);
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                    {"username": "nobody", "password": "Passw0rd!", "totpCode": "123456"}
+                                    """))
+                        .andReturn()));
+            }
+
+            List<Long> listingMillis = new ArrayList<>();
+            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < LOGIN_DELAY_MILLIS / 2) {
+                long listingStart = System.nanoTime();
+                mockMvc.perform(get("/api/full-todos").header(HttpHeaders.AUTHORIZATION, token))
+                        .andExpect(status().isOk());
+                listingMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - listingStart));
+            }
+
+            List<MvcResult> started = new ArrayList<>();
+            for (Future<MvcResult> login : logins) {
+                started.add(login.get(LOGIN_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+            }
+            long submittedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            assertThat(listingMillis).isNotEmpty().allSatisfy(millis -> assertThat(millis).isLessThan(MAX_LISTING_MILLIS));
+            // Had every login held its thread through the padding, the burst would need several delays to submit
+            assertThat(submittedMillis).isLessThan(LOGIN_DELAY_MILLIS + LOGIN_DELAY_MILLIS / 2);
+            assertThat(started).allSatisfy(result -> {
+                assertThat(result.getRequest().isAsyncStarted()).isTrue();
+                assertThat(result.getAsyncResult(10_000)).isNotNull();
+            });
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+}
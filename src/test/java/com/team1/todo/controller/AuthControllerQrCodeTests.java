@@ -0,0 +1,47 @@
+package com.team1.todo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.jayway.jsonpath.JsonPath;
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.entity.User;
+
+class AuthControllerQrCodeTests extends WebIntegrationTestSupport {
+
+    @Test
+    void qrImageIsRebuiltFromTheStoredSecret() throws Exception {
+        User user = createUser("qr");
+        String imageUrl = setUp2fa(user);
+
+        mockMvc.perform(get(imageUrl))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"));
+        mockMvc.perform(get(imageUrl.replace(".svg", ".png")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG));
+
+        // Another user's name with this key, or a key that does not match the secret, resolves to nothing
+        mockMvc.perform(get(imageUrl.replace(user.getUsername(), createUser("qr").getUsername())))
+                .andExpect(status().isNotFound());
+
+        user.setTwoFaSecret("JBSWY3DPEHPK3PXP");
+        userRepository.save(user);
+        mockMvc.perform(get(imageUrl)).andExpect(status().isNotFound());
+        mockMvc.perform(get(setUp2fa(user))).andExpect(status().isOk());
+    }
+
+    private String setUp2fa(User user) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/setup-2fa")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"" + user.getUsername() + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.qrCodeImageUrl");
+    }
+}
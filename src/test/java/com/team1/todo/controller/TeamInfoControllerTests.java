@@ -0,0 +1,59 @@
+package com.team1.todo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.User;
+import com.team1.todo.entity.UserSystemRole;
+import com.team1.todo.repository.SystemRoleRepository;
+import com.team1.todo.repository.UserSystemRoleRepository;
+
+class TeamInfoControllerTests extends WebIntegrationTestSupport {
+
+    @Autowired
+    private SystemRoleRepository systemRoleRepository;
+
+    @Autowired
+    private UserSystemRoleRepository userSystemRoleRepository;
+
+    @Test
+    void bulkImportIsLimitedToAdminsAndLeadsOfTheTeam() throws Exception {
+        Team team = createTeam("Import team ");
+        User member = createUser("member");
+        User lead = createUser("lead");
+        User outsider = createUser("outsider");
+        addMember(team, member, "team_member");
+        addMember(team, lead, "team_lead");
+        // A lead of another team has no say over this one
+        addMember(createTeam("Other team "), outsider, "team_lead");
+
+        mockMvc.perform(importMembers(team, member)).andExpect(status().isForbidden());
+        mockMvc.perform(importMembers(team, outsider)).andExpect(status().isForbidden());
+
+        // Allowed callers get past the check; the empty import itself is then rejected
+        mockMvc.perform(importMembers(team, lead)).andExpect(status().isBadRequest());
+        mockMvc.perform(importMembers(team, createAdmin(), "system_admin")).andExpect(status().isBadRequest());
+    }
+
+    // System roles are read from the database, not from the token
+    private User createAdmin() {
+        User admin = createUser("admin");
+        userSystemRoleRepository.save(new UserSystemRole(admin, systemRoleRepository.findByName("system_admin").orElseThrow()));
+        return admin;
+    }
+
+    private MockHttpServletRequestBuilder importMembers(Team team, User caller, String... systemRoles) {
+        return post("/api/teaminfo/{teamId}/members/bulk", team.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer(caller, systemRoles))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]");
+    }
+}
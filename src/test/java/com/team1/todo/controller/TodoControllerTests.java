@@ -0,0 +1,63 @@
+package com.team1.todo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.Todo;
+import com.team1.todo.entity.User;
+import com.team1.todo.repository.TodoRepository;
+import com.team1.todo.repository.TodoStatusRepository;
+
+class TodoControllerTests extends WebIntegrationTestSupport {
+
+    private static final String UPDATE = """
+        {"title": "Edited", "description": "Edited"}
+        """;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoStatusRepository todoStatusRepository;
+
+    @Test
+    void weakIfMatchFailsThePrecondition() throws Exception {
+        User user = createUser("editor");
+        Todo todo = saveTodo(user);
+
+        mockMvc.perform(put("/api/full-todos/{id}", todo.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .header(HttpHeaders.IF_MATCH, "W/\"" + todo.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/full-todos/{id}", todo.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .header(HttpHeaders.IF_MATCH, "\"" + todo.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (todo.getVersion() + 1) + "\""));
+    }
+
+    private Todo saveTodo(User user) {
+        Team team = createTeam("Edit team ");
+        addMember(team, user, "team_member");
+        Todo todo = new Todo();
+        todo.setTitle("Original");
+        todo.setDescription("Original");
+        todo.setCreatedBy(user);
+        todo.setTeam(team);
+        todo.setStatus(todoStatusRepository.findByName("Open").orElseThrow());
+        return todoRepository.save(todo);
+    }
+}
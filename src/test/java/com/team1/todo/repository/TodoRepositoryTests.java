@@ -0,0 +1,112 @@
+package com.team1.todo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.team1.todo.dto.TodoDto;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.Todo;
+import com.team1.todo.entity.TodoStatus;
+import com.team1.todo.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The schema comes from the entities here; the migrations are Postgres-only
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TodoRepositoryTests {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findDtoByIdLoadsTheTodoAndItsAssociationsInOneStatement() {
+        User creator = persistUser("creator");
+        User assignee = persistUser("assignee");
+        Team team = new Team();
+        team.setName("Platform");
+        entityManager.persist(team);
+        TodoStatus status = new TodoStatus();
+        status.setName("In Progress");
+        entityManager.persist(status);
+
+        Todo todo = new Todo();
+        todo.setTitle("Ship it");
+        todo.setDescription("Before Friday");
+        todo.setCreatedBy(creator);
+        todo.setAssignedTo(assignee);
+        todo.setTeam(team);
+        todo.setStatus(status);
+        Long id = entityManager.persistAndFlush(todo).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        TodoDto dto = todoRepository.findDtoById(id).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(dto.getTitle()).isEqualTo("Ship it");
+        assertThat(dto.getCreatedBy().getUsername()).isEqualTo("creator");
+        assertThat(dto.getAssignedTo().getUsername()).isEqualTo("assignee");
+        assertThat(dto.getTeam().getName()).isEqualTo("Platform");
+        assertThat(dto.getStatus().getName()).isEqualTo("In Progress");
+    }
+
+    @Test
+    void findDtoByIdKeepsUnassignedTodos() {
+        Todo todo = new Todo();
+        todo.setTitle("Nobody's yet");
+        todo.setCreatedBy(persistUser("creator"));
+        Long id = entityManager.persistAndFlush(todo).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        TodoDto dto = todoRepository.findDtoById(id).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(dto.getAssignedTo()).isNull();
+    }
+
+    @Test
+    void savingANewTodoPersistsItInsteadOfMerging() {
+        Todo todo = new Todo();
+        todo.setTitle("Fresh");
+        todo.setCreatedBy(persistUser("creator"));
+
+        Todo saved = todoRepository.saveAndFlush(todo);
+
+        assertThat(saved).isSameAs(todo);
+        assertThat(saved.getVersion()).isZero();
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash("hash");
+        user.setPasswordSalt("salt");
+        user.setTwoFaSecret("secret");
+        return entityManager.persist(user);
+    }
+}
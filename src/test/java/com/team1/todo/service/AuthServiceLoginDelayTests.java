@@ -0,0 +1,99 @@
+package com.team1.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.team1.todo.repository.UserRepository;
+
+// Login padding must not hold a thread per request: a burst of logins should all return at once
+// and all complete about one delay later, not one delay per scheduler thread.
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AuthServiceLoginDelayTests {
+
+    private static final int CONCURRENT_LOGINS = 200;
+    private static final long DELAY_MILLIS = 1000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @AfterEach
+    void tearDown() {
+        authService.shutdownLoginDelayScheduler();
+    }
+
+    @Test
+    void concurrentLoginsArePaddedWithoutBlockingCallers() throws Exception {
+        when(loginAttemptLimiter.isLoginLimited(anyString(), any())).thenReturn(false);
+        when(userRepository.findByUsernameWithRoles(anyString())).thenReturn(Optional.empty());
+        when(passwordHashingService.matchesDummy(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+
+        long startNanos = System.nanoTime();
+        long[] callNanos = new long[CONCURRENT_LOGINS];
+        List<CompletableFuture<Long>> completions = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+            callNanos[i] = System.nanoTime();
+            completions.add(authService.authenticate("user" + i, "Passw0rd!", "123456", "10.0.0.1")
+                    .handle((response, error) -> {
+                        assertThat(error).isInstanceOf(SecurityException.class);
+                        return System.nanoTime();
+                    }));
+        }
+        long submittedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        CompletableFuture.allOf(completions.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        // Had any caller slept through its padding, submitting the burst alone would take several delays
+        assertThat(submittedMillis).isLessThan(DELAY_MILLIS);
+        for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(completions.get(i).join() - callNanos[i]))
+                    .isGreaterThanOrEqualTo(DELAY_MILLIS);
+        }
+        assertThat(totalMillis).isLessThan(submittedMillis + DELAY_MILLIS + DELAY_MILLIS / 2);
+    }
+
+    @Test
+    void hashingOverloadIsShedWithoutPadding() {
+        when(loginAttemptLimiter.isLoginLimited(anyString(), any())).thenReturn(false);
+        when(userRepository.findByUsernameWithRoles(anyString())).thenReturn(Optional.empty());
+        when(passwordHashingService.matchesDummy(anyString()))
+                .thenThrow(new PasswordHashingService.HashingCapacityExceededException(2));
+
+        CompletableFuture<AuthService.AuthenticationResponse> result =
+                authService.authenticate("someone", "Passw0rd!", "123456", "10.0.0.1");
+
+        assertThat(result).isCompletedExceptionally();
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PasswordHashingService.HashingCapacityExceededException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.team1.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlidingWindowRateLimiterTests {
+
+    private static final int MAX_EVENTS = 3;
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    @Test
+    void lockedKeysSurviveAFloodOfNewKeys() throws Exception {
+        SlidingWindowRateLimiter limiter = limiter(1_000);
+        List<String> locked = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String key = "victim" + i;
+            for (int attempt = 0; attempt < MAX_EVENTS; attempt++) {
+                limiter.record(key);
+            }
+            locked.add(key);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> floods = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                floods.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        limiter.record("flood-" + offset + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> flood : floods) {
+                flood.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(locked).allMatch(limiter::isLimited);
+        assertThat(limiter.size()).isLessThanOrEqualTo(1_000 + 8);
+    }
+
+    @Test
+    void newKeysAreNotLockedOutWhenEveryTrackedKeyIsLimited() {
+        SlidingWindowRateLimiter limiter = limiter(10);
+        for (int i = 0; i < 10; i++) {
+            for (int attempt = 0; attempt < MAX_EVENTS; attempt++) {
+                limiter.record("victim" + i);
+            }
+        }
+
+        assertThat(limiter.isLimited("newcomer")).isFalse();
+        limiter.record("newcomer");
+
+        // The oldest lockouts make room; the rest are kept and the newcomer is counted from here on
+        assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        assertThat(limiter.isLimited("newcomer")).isFalse();
+        assertThat(IntStream.range(0, 10).filter(i -> limiter.isLimited("victim" + i)).count())
+                .isGreaterThanOrEqualTo(8);
+        limiter.record("newcomer");
+        limiter.record("newcomer");
+        assertThat(limiter.isLimited("newcomer")).isTrue();
+    }
+
+    @Test
+    void leastRecentlyUsedKeysAreEvictedFirst() throws Exception {
+        // 100 ms buckets, so the two keys land in different buckets
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(
+                "test", MAX_EVENTS, Duration.ofSeconds(10), 100, 2, new SimpleMeterRegistry());
+        limiter.record("older");
+        limiter.record("older");
+        Thread.sleep(150);
+        limiter.record("newer");
+        limiter.record("newer");
+
+        limiter.record("newest");
+
+        assertThat(limiter.size()).isEqualTo(2);
+        // The retained key keeps its count; the evicted one starts over
+        limiter.record("newer");
+        assertThat(limiter.isLimited("newer")).isTrue();
+        limiter.record("older");
+        assertThat(limiter.isLimited("older")).isFalse();
+    }
+
+    private static SlidingWindowRateLimiter limiter(int maxKeys) {
+        return new SlidingWindowRateLimiter("test", MAX_EVENTS, WINDOW, 10, maxKeys, new SimpleMeterRegistry());
+    }
+}
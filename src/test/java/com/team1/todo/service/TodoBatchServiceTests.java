@@ -0,0 +1,76 @@
+package com.team1.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.team1.todo.WebIntegrationTestSupport;
+import com.team1.todo.dto.TodoBatchOperationDto;
+import com.team1.todo.dto.TodoBatchResultDto;
+import com.team1.todo.dto.TodoRequestDto;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.Todo;
+import com.team1.todo.entity.User;
+import com.team1.todo.repository.TodoRepository;
+import com.team1.todo.repository.TodoStatusRepository;
+
+class TodoBatchServiceTests extends WebIntegrationTestSupport {
+
+    @Autowired
+    private TodoBatchService todoBatchService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoStatusRepository todoStatusRepository;
+
+    @Test
+    void repeatedTodoIdsAreRejectedPerItem() {
+        User user = createUser("batcher");
+        Team team = createTeam("Batch team ");
+        addMember(team, user, "team_member");
+        Todo repeated = saveTodo(user, team, "Repeated");
+        Todo single = saveTodo(user, team, "Single");
+
+        List<TodoBatchResultDto> results = todoBatchService.apply(List.of(
+                update(repeated.getId(), "Renamed"),
+                update(single.getId(), "Also renamed"),
+                operation(TodoBatchOperationDto.DELETE, repeated.getId(), null)), user.getId());
+
+        assertThat(results).extracting(TodoBatchResultDto::getStatus).containsExactly(400, 200, 400);
+        assertThat(results.get(0).getMessage()).contains("more than once");
+        assertThat(todoRepository.findById(repeated.getId())).get()
+                .extracting(Todo::getTitle).isEqualTo("Repeated");
+        assertThat(todoRepository.findById(single.getId())).get()
+                .extracting(Todo::getTitle).isEqualTo("Also renamed");
+    }
+
+    private Todo saveTodo(User user, Team team, String title) {
+        Todo todo = new Todo();
+        todo.setTitle(title);
+        todo.setDescription("Seeded");
+        todo.setCreatedBy(user);
+        todo.setTeam(team);
+        todo.setStatus(todoStatusRepository.findByName("Open").orElseThrow());
+        return todoRepository.save(todo);
+    }
+
+    private static TodoBatchOperationDto update(Long id, String title) {
+        TodoRequestDto todo = new TodoRequestDto();
+        todo.setTitle(title);
+        todo.setDescription("Updated");
+        return operation(TodoBatchOperationDto.UPDATE, id, todo);
+    }
+
+    private static TodoBatchOperationDto operation(String op, Long id, TodoRequestDto todo) {
+        TodoBatchOperationDto operation = new TodoBatchOperationDto();
+        operation.setOp(op);
+        operation.setId(id);
+        operation.setTodo(todo);
+        return operation;
+    }
+}
@@ -0,0 +1,161 @@
+package com.team1.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.team1.todo.dto.TodoFilterDto;
+import com.team1.todo.dto.TodoPageDto;
+import com.team1.todo.entity.Team;
+import com.team1.todo.entity.TeamMember;
+import com.team1.todo.entity.TeamRole;
+import com.team1.todo.entity.Todo;
+import com.team1.todo.entity.TodoStatus;
+import com.team1.todo.entity.User;
+
+// The schema comes from the entities here; the migrations are Postgres-only
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TodoQueryServiceTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private TodoQueryService todoQueryService;
+    private User viewer;
+    private List<User> users;
+    private List<Team> teams;
+    private List<TodoStatus> statuses;
+
+    @BeforeEach
+    void setUp() {
+        // Counts statements on the test transaction's connection, so the query sees the seeded rows
+        DataSource counting = new DelegatingDataSource(new TransactionAwareDataSourceProxy(dataSource)) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return countStatements(super.getConnection());
+            }
+        };
+        todoQueryService = new TodoQueryService(new NamedParameterJdbcTemplate(counting), counting, transactionManager);
+
+        viewer = persistUser("viewer");
+        users = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            users.add(persistUser("user" + i));
+        }
+        TeamRole role = new TeamRole();
+        role.setName("team_member");
+        entityManager.persist(role);
+        teams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team();
+            team.setName("Team " + i);
+            entityManager.persist(team);
+            TeamMember member = new TeamMember();
+            member.setTeam(team);
+            member.setUser(viewer);
+            member.setTeamRole(role);
+            entityManager.persist(member);
+            teams.add(team);
+        }
+        statuses = new ArrayList<>();
+        for (String name : List.of("Open", "In Progress", "Completed")) {
+            TodoStatus status = new TodoStatus();
+            status.setName(name);
+            entityManager.persist(status);
+            statuses.add(status);
+        }
+    }
+
+    @Test
+    void listingStatementCountDoesNotGrowWithRows() {
+        seedTodos(1);
+        int forOne = countListingStatements(1);
+
+        seedTodos(19);
+        int forTwenty = countListingStatements(20);
+
+        assertThat(forOne).isEqualTo(1);
+        assertThat(forTwenty).isEqualTo(forOne);
+    }
+
+    private int countListingStatements(int expectedRows) {
+        entityManager.flush();
+        entityManager.clear();
+        statements.set(0);
+
+        TodoPageDto page = todoQueryService.findPage(new TodoFilterDto(), viewer.getId());
+
+        assertThat(page.getItems()).hasSize(expectedRows);
+        assertThat(page.getItems()).allSatisfy(todo -> {
+            assertThat(todo.getCreatedBy()).isNotNull();
+            assertThat(todo.getAssignedTo()).isNotNull();
+            assertThat(todo.getTeam()).isNotNull();
+            assertThat(todo.getStatus()).isNotNull();
+        });
+        return statements.get();
+    }
+
+    private void seedTodos(int count) {
+        for (int i = 0; i < count; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("Todo " + i);
+            todo.setDescription("Seeded");
+            todo.setCreatedBy(users.get(i % users.size()));
+            todo.setAssignedTo(users.get((i + 1) % users.size()));
+            todo.setTeam(teams.get(i % teams.size()));
+            todo.setStatus(statuses.get(i % statuses.size()));
+            entityManager.persist(todo);
+        }
+    }
+
+    private Connection countStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash("hash");
+        user.setPasswordSalt("salt");
+        user.setTwoFaSecret("secret");
+        return entityManager.persist(user);
+    }
+}
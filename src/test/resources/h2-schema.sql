@@ -0,0 +1,23 @@
+-- Tables without entities (the Postgres migrations create them in production) and the seed rows
+-- AuthService and the membership endpoints look up by name. H2's PostgreSQL mode provides set_config.
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT    NOT NULL,
+    token_hash CHAR(64)  NOT NULL UNIQUE,
+    family_id  UUID      NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used_at    TIMESTAMP,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP   NOT NULL,
+    revoked_at TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+INSERT INTO system_roles (name) VALUES ('system_admin'), ('todo_user');
+INSERT INTO team_roles (name) VALUES ('team_lead'), ('team_member');
+INSERT INTO todo_status (name) VALUES ('Open'), ('In Progress'), ('Completed');